@@ -13,7 +13,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-        import java.util.List;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -24,6 +26,8 @@ import java.util.Optional;
 @RequestMapping("/api/v1/inventory")
 public class InventoryController {
 
+    private static final int MAX_AVAILABILITY_PAGE_SIZE = 1000;
+
     @Autowired
     private InventoryService inventoryService;
 
@@ -191,6 +195,24 @@ public class InventoryController {
         }
     }
 
+    /**
+     * Validate stock availability for several products in one call
+     */
+    @PostMapping("/validate/batch")
+    public ResponseEntity<?> validateStockBatch(
+            @RequestBody List<BatchReservationRequest.ReservationItem> items) {
+
+        try {
+            List<StockValidationResponse> responses = inventoryService.validateMultipleStock(
+                    items.stream().map(BatchReservationRequest.ReservationItem::getProductId).toList(),
+                    items.stream().map(BatchReservationRequest.ReservationItem::getQuantity).toList());
+            return ResponseEntity.ok(responses);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to validate stock: " + e.getMessage()));
+        }
+    }
+
     /**
      * Reserve stock for an order
      */
@@ -216,6 +238,31 @@ public class InventoryController {
         }
     }
 
+    /**
+     * Reserve stock for several products in one call (all or nothing)
+     */
+    @PostMapping("/reserve/batch")
+    public ResponseEntity<?> reserveStockBatch(
+            @Valid @RequestBody BatchReservationRequest request,
+            @RequestHeader(value = "X-Authenticated-User-Username", defaultValue = "") String username) {
+
+        try {
+            // Set user email from header if not provided
+            if (request.getUserEmail() == null || request.getUserEmail().isEmpty()) {
+                request.setUserEmail(username);
+            }
+
+            List<StockReservation> reservations = inventoryService.reserveStockBatch(request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(reservations);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to reserve stock: " + e.getMessage()));
+        }
+    }
+
     /**
      * Confirm a stock reservation (permanently deduct stock)
      */
@@ -258,6 +305,27 @@ public class InventoryController {
         }
     }
 
+    /**
+     * Release all active reservations of several orders/carts in one call
+     */
+    @PostMapping("/release/batch")
+    public ResponseEntity<?> releaseReservationsBatch(
+            @Valid @RequestBody BulkReleaseRequest request,
+            @RequestHeader(value = "X-Authenticated-User-Username", defaultValue = "system") String username) {
+
+        try {
+            BulkReleaseResponse response = inventoryService.releaseReservationsBatch(
+                    request.getOrderIds(), request.getReason(), username);
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to release reservations: " + e.getMessage()));
+        }
+    }
+
     /**
      * Get reservations for an order
      */
@@ -272,6 +340,37 @@ public class InventoryController {
         }
     }
 
+    /**
+     * Stock status changes since a point in time, oldest first (for product-catalog-service's
+     * availability projection). Page with the last row's updatedAt and productId.
+     * @param updatedSince ISO date-time; rows changed after it are returned
+     * @param afterProductId Rows changed exactly at updatedSince are returned after this product ID
+     * @param limit Page size (at most 1000)
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<?> getAvailabilityChanges(
+            @RequestParam String updatedSince,
+            @RequestParam(defaultValue = "0") Long afterProductId,
+            @RequestParam(defaultValue = "500") int limit) {
+
+        LocalDateTime since;
+        try {
+            since = LocalDateTime.parse(updatedSince);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "updatedSince must be an ISO date-time, e.g. 2024-01-01T00:00:00"));
+        }
+
+        try {
+            List<AvailabilityResponse> changes = inventoryService.getAvailabilityChanges(
+                    since, afterProductId, Math.max(1, Math.min(limit, MAX_AVAILABILITY_PAGE_SIZE)));
+            return ResponseEntity.ok(changes);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to retrieve availability: " + e.getMessage()));
+        }
+    }
+
     /**
      * Get low stock items (Admin only)
      */
@@ -0,0 +1,62 @@
+package com.ecommerce.inventory_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock status of one product, as projected into product-catalog-service
+ * (GET /api/v1/inventory/availability)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityResponse {
+    private Long productId;
+    private Integer availableQuantity;
+    private Boolean inStock;
+    private Boolean lowStock;
+    private LocalDateTime updatedAt;
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getAvailableQuantity() {
+        return availableQuantity;
+    }
+
+    public void setAvailableQuantity(Integer availableQuantity) {
+        this.availableQuantity = availableQuantity;
+    }
+
+    public Boolean getInStock() {
+        return inStock;
+    }
+
+    public void setInStock(Boolean inStock) {
+        this.inStock = inStock;
+    }
+
+    public Boolean getLowStock() {
+        return lowStock;
+    }
+
+    public void setLowStock(Boolean lowStock) {
+        this.lowStock = lowStock;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
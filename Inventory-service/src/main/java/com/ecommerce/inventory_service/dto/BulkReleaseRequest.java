@@ -0,0 +1,41 @@
+package com.ecommerce.inventory_service.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Release every ACTIVE reservation of several orders/carts in one call
+ * (e.g. when abandoned carts are swept)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkReleaseRequest {
+
+    @NotEmpty(message = "Order IDs are required")
+    @Size(max = 1000, message = "At most 1000 order IDs per call")
+    private List<String> orderIds;
+
+    private String reason;
+
+    public List<String> getOrderIds() {
+        return orderIds;
+    }
+
+    public void setOrderIds(List<String> orderIds) {
+        this.orderIds = orderIds;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+}
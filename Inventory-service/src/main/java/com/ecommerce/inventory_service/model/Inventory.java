@@ -12,7 +12,9 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "inventory",
-        uniqueConstraints = @UniqueConstraint(columnNames = "product_id"))
+        uniqueConstraints = @UniqueConstraint(columnNames = "product_id"),
+        // Availability changes feed (GET /api/v1/inventory/availability)
+        indexes = @Index(name = "idx_inventory_updated_product", columnList = "updated_at, product_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
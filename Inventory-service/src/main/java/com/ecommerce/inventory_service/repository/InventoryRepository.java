@@ -2,11 +2,13 @@ package com.ecommerce.inventory_service.repository;
 
 
 import com.ecommerce.inventory_service.model.Inventory;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -40,4 +42,15 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     Optional<Inventory> findByProductIdWithSufficientStock(@Param("productId") Long productId, @Param("quantity") Integer quantity);
 
     boolean existsByProductId(Long productId);
+
+    /**
+     * Inventory rows changed after (updatedSince, afterProductId), oldest change first.
+     * Keyset on (updated_at, product_id), so a page boundary inside a burst of equal timestamps loses nothing.
+     */
+    @Query("SELECT i FROM Inventory i WHERE i.updatedAt > :updatedSince " +
+            "OR (i.updatedAt = :updatedSince AND i.productId > :afterProductId) " +
+            "ORDER BY i.updatedAt, i.productId")
+    List<Inventory> findChangedSince(@Param("updatedSince") LocalDateTime updatedSince,
+                                     @Param("afterProductId") Long afterProductId,
+                                     Pageable pageable);
 }
\ No newline at end of file
@@ -44,5 +44,8 @@ public interface StockReservationRepository extends JpaRepository<StockReservati
     @Query("SELECT sr FROM StockReservation sr WHERE sr.productId = :productId AND sr.status = 'ACTIVE' AND sr.expiresAt > :currentTime")
     List<StockReservation> findActiveReservationsForProduct(@Param("productId") Long productId, @Param("currentTime") LocalDateTime currentTime);
 
+    @Query("SELECT sr FROM StockReservation sr WHERE sr.orderId IN :orderIds AND sr.status = 'ACTIVE'")
+    List<StockReservation> findActiveByOrderIdIn(@Param("orderIds") List<String> orderIds);
+
     void deleteByOrderId(String orderId);
 }
@@ -5,6 +5,7 @@ import com.ecommerce.inventory_service.model.Inventory;
 import com.ecommerce.inventory_service.model.InventoryHistory;
 import com.ecommerce.inventory_service.model.StockReservation;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,8 +23,10 @@ public interface InventoryService {
 
     // Stock Reservation Management
     StockReservation reserveStock(StockReservationRequest request);
+    List<StockReservation> reserveStockBatch(BatchReservationRequest request);
     StockReservation confirmReservation(String orderId, Long productId, String userEmail);
     StockReservation releaseReservation(String orderId, Long productId, String userEmail);
+    BulkReleaseResponse releaseReservationsBatch(List<String> orderIds, String reason, String userEmail);
     List<StockReservation> getReservationsByOrderId(String orderId);
     List<StockReservation> getActiveReservationsForProduct(Long productId);
     StockReservation adjustReservationQuantity(String orderId, Long productId, Integer newQuantity, String userEmail);
@@ -49,4 +52,5 @@ public interface InventoryService {
     boolean checkAvailability(Long productId, Integer quantity);
     void updateMinStockLevel(Long productId, Integer minLevel);
     void syncWithProductCatalog();
+    List<AvailabilityResponse> getAvailabilityChanges(LocalDateTime updatedSince, Long afterProductId, int limit);
 }
\ No newline at end of file
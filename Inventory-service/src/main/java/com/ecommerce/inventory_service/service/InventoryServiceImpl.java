@@ -10,12 +10,15 @@ import com.ecommerce.inventory_service.repository.InventoryRepository;
 import com.ecommerce.inventory_service.repository.InventoryHistoryRepository;
 import com.ecommerce.inventory_service.repository.StockReservationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -148,6 +151,36 @@ public class InventoryServiceImpl implements InventoryService {
         }
     }
 
+    @Override
+    @Transactional
+    public List<StockReservation> reserveStockBatch(BatchReservationRequest request) {
+        System.out.println(">>> Batch reserving " + request.getItems().size() +
+                " products for order: " + request.getOrderId());
+
+        // One reservation per product - merge duplicate lines first
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (BatchReservationRequest.ReservationItem item : request.getItems()) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+
+        // Runs in this transaction: if any product can't be reserved, the exception
+        // rolls back every reservation made so far
+        List<StockReservation> reservations = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            StockReservationRequest single = new StockReservationRequest();
+            single.setProductId(entry.getKey());
+            single.setQuantity(entry.getValue());
+            single.setOrderId(request.getOrderId());
+            single.setUserEmail(request.getUserEmail());
+            single.setExpirationMinutes(request.getExpirationMinutes());
+            single.setNotes(request.getNotes());
+            reservations.add(reserveStock(single));
+        }
+
+        System.out.println(">>> Batch reserved " + reservations.size() + " products");
+        return reservations;
+    }
+
     private StockReservation consolidateReservation(StockReservation existing, StockReservationRequest request) {
         System.out.println(">>> Consolidating reservation. Current: " + existing.getQuantity() +
                 ", Adding: " + request.getQuantity());
@@ -320,6 +353,55 @@ public class InventoryServiceImpl implements InventoryService {
         return saved;
     }
 
+    @Override
+    @Transactional
+    public BulkReleaseResponse releaseReservationsBatch(List<String> orderIds, String reason, String userEmail) {
+        List<StockReservation> reservations = reservationRepository.findActiveByOrderIdIn(orderIds);
+        System.out.println(">>> Bulk releasing " + reservations.size() + " reservations for " +
+                orderIds.size() + " orders");
+        if (reservations.isEmpty()) {
+            return new BulkReleaseResponse(orderIds.size(), 0, 0);
+        }
+
+        // One inventory row per product, however many orders held it
+        Map<Long, Integer> unitsByProduct = new LinkedHashMap<>();
+        for (StockReservation reservation : reservations) {
+            unitsByProduct.merge(reservation.getProductId(), reservation.getQuantity(), Integer::sum);
+        }
+        Map<Long, Inventory> inventories = new LinkedHashMap<>();
+        for (Inventory inventory : inventoryRepository.findByProductIdIn(new ArrayList<>(unitsByProduct.keySet()))) {
+            inventories.put(inventory.getProductId(), inventory);
+        }
+
+        int units = 0;
+        for (StockReservation reservation : reservations) {
+            Inventory inventory = inventories.get(reservation.getProductId());
+            if (inventory == null) {
+                throw new RuntimeException("Inventory not found for product: " + reservation.getProductId());
+            }
+            reservation.release();
+            if (reservation.getQuantity() == null || reservation.getQuantity() <= 0) {
+                continue;  // Adjusted down to nothing - only the status changes
+            }
+            inventory.releaseReservedStock(reservation.getQuantity());
+            units += reservation.getQuantity();
+
+            recordInventoryHistory(reservation.getProductId(), OperationType.STOCK_RELEASED,
+                    reservation.getQuantity(),
+                    inventory.getAvailableQuantity() - reservation.getQuantity(),
+                    inventory.getAvailableQuantity(),
+                    reservation.getOrderId(), reason != null ? reason : "BULK_RELEASE",
+                    userEmail,
+                    "Stock released from order: " + reservation.getOrderId() + " (quantity: " + reservation.getQuantity() + ")",
+                    inventory.getLocation());
+        }
+        inventoryRepository.saveAll(inventories.values());
+        reservationRepository.saveAll(reservations);
+
+        System.out.println(">>> Bulk released " + units + " units across " + inventories.size() + " products");
+        return new BulkReleaseResponse(orderIds.size(), reservations.size(), units);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<StockReservation> getReservationsByOrderId(String orderId) {
@@ -548,6 +630,24 @@ public class InventoryServiceImpl implements InventoryService {
         // TODO: Implement product catalog sync
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<AvailabilityResponse> getAvailabilityChanges(LocalDateTime updatedSince, Long afterProductId, int limit) {
+        List<Inventory> changed = inventoryRepository.findChangedSince(updatedSince, afterProductId,
+                PageRequest.of(0, limit));
+        List<AvailabilityResponse> responses = new ArrayList<>(changed.size());
+        for (Inventory inventory : changed) {
+            boolean active = Boolean.TRUE.equals(inventory.getIsActive());
+            responses.add(new AvailabilityResponse(
+                    inventory.getProductId(),
+                    inventory.getAvailableQuantity(),
+                    active && inventory.getAvailableQuantity() > 0,
+                    active && inventory.isLowStock(),
+                    inventory.getUpdatedAt()));
+        }
+        return responses;
+    }
+
     // Helper methods
 
     private Inventory getOrCreateInventory(Long productId) {
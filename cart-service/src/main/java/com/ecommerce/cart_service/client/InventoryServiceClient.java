@@ -1,17 +1,27 @@
 package com.ecommerce.cart_service.client;
 
+import com.ecommerce.cart_service.dto.BatchReservationRequest;
+import com.ecommerce.cart_service.dto.BulkReleaseRequest;
+import com.ecommerce.cart_service.dto.BulkReleaseResponse;
 import com.ecommerce.cart_service.dto.StockReservationRequest;
 import com.ecommerce.cart_service.dto.StockValidationResponse;
 import com.ecommerce.cart_service.model.StockReservation;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 @FeignClient(name = "inventory-service")
 public interface InventoryServiceClient {
 
     @PostMapping("/api/v1/inventory/reserve")
     StockReservation reserveStock(@RequestBody StockReservationRequest request);
 
+    // All-or-nothing reservation of several products in one call
+    @PostMapping("/api/v1/inventory/reserve/batch")
+    List<StockReservation> reserveStockBatch(@RequestBody BatchReservationRequest request);
+
     @PostMapping("/api/v1/inventory/confirm/{orderId}/{productId}")
     StockReservation confirmReservation(@PathVariable String orderId,
                                         @PathVariable Long productId,
@@ -27,12 +37,18 @@ public interface InventoryServiceClient {
                                           @RequestParam Integer quantity);
 
     /**
-     * Adjust reservation quantity (when cart item quantity changes)
-     * This is the method you were trying to use!
+     * Set a reservation to an absolute quantity (when cart item quantity changes)
      */
-    @PutMapping("/api/v1/inventory/reservation/{orderId}/{productId}/adjust")
+    @PutMapping("/api/v1/inventory/adjust/{orderId}/{productId}")
     StockReservation adjustReservationQuantity(@PathVariable("orderId") String orderId,
                                                @PathVariable("productId") Long productId,
-                                               @RequestParam("newQuantity") Integer newQuantity,
+                                               @RequestBody Map<String, Integer> quantityRequest,
                                                @RequestHeader("X-Authenticated-User-Username") String username);
+
+    // Release every active reservation of several carts (abandoned cart sweep)
+    @PostMapping("/api/v1/inventory/release/batch")
+    BulkReleaseResponse releaseReservationsBatch(@RequestBody BulkReleaseRequest request);
+
+    @PostMapping("/api/v1/inventory/validate/batch")
+    List<StockValidationResponse> validateStockBatch(@RequestBody List<BatchReservationRequest.ReservationItem> items);
 }
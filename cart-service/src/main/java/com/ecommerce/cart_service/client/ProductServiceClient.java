@@ -1,13 +1,26 @@
 package com.ecommerce.cart_service.client;
 
 
+import com.ecommerce.cart_service.dto.ProductChangeResponse;
 import com.ecommerce.cart_service.dto.ProductResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
 
 @FeignClient(name = "product-catalog-service")
 public interface ProductServiceClient {
     @GetMapping("/api/v1/products/{id}")
     ProductResponse getProductById(@PathVariable("id") Long productId);
+
+    // Many products in one call (ids that don't exist are simply missing from the result)
+    @GetMapping("/api/v1/products/batch")
+    List<ProductResponse> getProductsByIds(@RequestParam("ids") List<Long> productIds);
+
+    // Product name/price changes after the given feed position, oldest first
+    @GetMapping("/api/v1/products/changes")
+    List<ProductChangeResponse> getProductChanges(@RequestParam("since") Long since,
+                                                  @RequestParam("limit") int limit);
 }
\ No newline at end of file
@@ -1,10 +1,14 @@
 package com.ecommerce.cart_service.controller;
 
 import com.ecommerce.cart_service.dto.AddToCartRequest;
+import com.ecommerce.cart_service.dto.BatchAddToCartRequest;
+import com.ecommerce.cart_service.dto.CartResponse;
 import com.ecommerce.cart_service.dto.UpdateCartItemRequest;
-import com.ecommerce.cart_service.model.Cart;
 import com.ecommerce.cart_service.service.CartService;
+import com.ecommerce.cart_service.store.CartVersionTracker;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,13 +22,32 @@ public class CartController {
     @Autowired
     private CartService cartService;
 
+    @Autowired
+    private CartVersionTracker cartVersionTracker;
+
     @GetMapping
-    public ResponseEntity<Cart> getCart(
-            @RequestHeader("X-Authenticated-User-Username") String userEmail) {
+    public ResponseEntity<CartResponse> getCart(
+            @RequestHeader("X-Authenticated-User-Username") String userEmail,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
 
         try {
-            Cart cart = cartService.getCartByUserEmail(userEmail);
-            return ResponseEntity.ok(cart);
+            // Polled by the header mini-cart on every page view: an unchanged cart
+            // is answered from the version map and one version read, without loading the cart
+            String knownETag = cartVersionTracker.currentETag(userEmail);
+            if (CartVersionTracker.matches(ifNoneMatch, knownETag)) {
+                return notModified(knownETag);
+            }
+
+            CartResponse cart = cartService.getCartByUserEmail(userEmail);
+            cartVersionTracker.record(userEmail, cart.getCartId(), cart.getVersion());
+            String eTag = CartVersionTracker.eTag(cart.getCartId(), cart.getVersion());
+            if (CartVersionTracker.matches(ifNoneMatch, eTag)) {
+                return notModified(eTag);
+            }
+            return ResponseEntity.ok()
+                    .eTag(eTag)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .body(cart);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -36,7 +59,57 @@ public class CartController {
             @RequestBody AddToCartRequest request) {
 
         try {
-            Cart cart = cartService.addToCart(userEmail, request);
+            CartResponse cart = cartService.addToCart(userEmail, request);
+            return ResponseEntity.ok(cart);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "An unexpected error occurred"));
+        }
+    }
+
+    @PostMapping("/items/batch")
+    public ResponseEntity<?> addItemsToCart(
+            @RequestHeader("X-Authenticated-User-Username") String userEmail,
+            @Valid @RequestBody BatchAddToCartRequest request) {
+
+        try {
+            CartResponse cart = cartService.addItemsToCart(userEmail, request.getItems());
+            return ResponseEntity.ok(cart);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "An unexpected error occurred"));
+        }
+    }
+
+    @PostMapping("/merge")
+    public ResponseEntity<?> mergeGuestCart(
+            @RequestHeader("X-Authenticated-User-Username") String userEmail,
+            @Valid @RequestBody BatchAddToCartRequest request) {
+
+        try {
+            CartResponse cart = cartService.mergeGuestCart(userEmail, request.getItems());
+            return ResponseEntity.ok(cart);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "An unexpected error occurred"));
+        }
+    }
+
+    @PostMapping("/checkout")
+    public ResponseEntity<?> beginCheckout(
+            @RequestHeader("X-Authenticated-User-Username") String userEmail) {
+
+        try {
+            CartResponse cart = cartService.beginCheckout(userEmail);
             return ResponseEntity.ok(cart);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
@@ -54,7 +127,7 @@ public class CartController {
             @RequestBody UpdateCartItemRequest request) {
 
         try {
-            Cart cart = cartService.updateCartItem(userEmail, cartItemId, request);
+            CartResponse cart = cartService.updateCartItem(userEmail, cartItemId, request);
             return ResponseEntity.ok(cart);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
@@ -71,7 +144,7 @@ public class CartController {
             @PathVariable Long cartItemId) {
 
         try {
-            Cart cart = cartService.removeFromCart(userEmail, cartItemId);
+            CartResponse cart = cartService.removeFromCart(userEmail, cartItemId);
             return ResponseEntity.ok(Map.of(
                     "message", "Item removed from cart successfully",
                     "cart", cart
@@ -98,6 +171,18 @@ public class CartController {
         }
     }
 
+    @PostMapping("/verify-total")
+    public ResponseEntity<?> verifyCartTotal(
+            @RequestHeader("X-Authenticated-User-Username") String userEmail) {
+
+        try {
+            return ResponseEntity.ok(cartService.verifyCartTotal(userEmail));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/health")
     public ResponseEntity<Map<String, String>> healthCheck() {
         return ResponseEntity.ok(Map.of(
@@ -106,4 +191,11 @@ public class CartController {
                 "timestamp", java.time.LocalDateTime.now().toString()
         ));
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<CartResponse> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .build();
+    }
+}
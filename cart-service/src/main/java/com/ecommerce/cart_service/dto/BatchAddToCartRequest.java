@@ -0,0 +1,31 @@
+package com.ecommerce.cart_service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Several cart lines at once - used by quick-order lists (POST /items/batch)
+ * and by guest cart merge on login (POST /merge)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAddToCartRequest {
+
+    @NotEmpty(message = "Items list is required")
+    @Valid
+    private List<AddToCartRequest> items;
+
+    public List<AddToCartRequest> getItems() {
+        return items;
+    }
+
+    public void setItems(List<AddToCartRequest> items) {
+        this.items = items;
+    }
+}
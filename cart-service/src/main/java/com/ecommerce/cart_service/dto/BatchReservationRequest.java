@@ -0,0 +1,101 @@
+package com.ecommerce.cart_service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Reserve several products for one order/cart in a single call.
+ * All items are reserved in one transaction - either every item is reserved or none is.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchReservationRequest {
+
+    @NotBlank(message = "Order ID is required")
+    private String orderId;
+
+    private String userEmail;
+    private Integer expirationMinutes = 30; // Default 30 minutes
+    private String notes;
+
+    @NotEmpty(message = "Items list is required")
+    @Valid
+    private List<ReservationItem> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ReservationItem {
+        @NotNull(message = "Product ID is required")
+        private Long productId;
+
+        @NotNull(message = "Quantity is required")
+        @Min(value = 1, message = "Quantity must be at least 1")
+        private Integer quantity;
+
+        public Long getProductId() {
+            return productId;
+        }
+
+        public void setProductId(Long productId) {
+            this.productId = productId;
+        }
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(Integer quantity) {
+            this.quantity = quantity;
+        }
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    public void setUserEmail(String userEmail) {
+        this.userEmail = userEmail;
+    }
+
+    public Integer getExpirationMinutes() {
+        return expirationMinutes;
+    }
+
+    public void setExpirationMinutes(Integer expirationMinutes) {
+        this.expirationMinutes = expirationMinutes;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    public List<ReservationItem> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ReservationItem> items) {
+        this.items = items;
+    }
+}
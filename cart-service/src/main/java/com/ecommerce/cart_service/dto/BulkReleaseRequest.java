@@ -0,0 +1,34 @@
+package com.ecommerce.cart_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Release every active reservation of several carts in one inventory call
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkReleaseRequest {
+    private List<String> orderIds;
+    private String reason;
+
+    public List<String> getOrderIds() {
+        return orderIds;
+    }
+
+    public void setOrderIds(List<String> orderIds) {
+        this.orderIds = orderIds;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+}
@@ -0,0 +1,38 @@
+package com.ecommerce.cart_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkReleaseResponse {
+    private Integer ordersRequested;
+    private Integer reservationsReleased;
+    private Integer unitsReleased;
+
+    public Integer getOrdersRequested() {
+        return ordersRequested;
+    }
+
+    public void setOrdersRequested(Integer ordersRequested) {
+        this.ordersRequested = ordersRequested;
+    }
+
+    public Integer getReservationsReleased() {
+        return reservationsReleased;
+    }
+
+    public void setReservationsReleased(Integer reservationsReleased) {
+        this.reservationsReleased = reservationsReleased;
+    }
+
+    public Integer getUnitsReleased() {
+        return unitsReleased;
+    }
+
+    public void setUnitsReleased(Integer unitsReleased) {
+        this.unitsReleased = unitsReleased;
+    }
+}
@@ -1,14 +1,22 @@
 package com.ecommerce.cart_service.dto;
 
 
+import com.ecommerce.cart_service.model.Cart;
+import com.ecommerce.cart_service.model.CartItem;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * What every cart endpoint returns. Built from a cart whose items were loaded with it
+ * (one fetch-join query), inside the service transaction, so serialization never
+ * touches the JPA entities or their lazy collections.
+ */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -18,6 +26,7 @@ public class CartResponse {
     private List<CartItemResponse> items;
     private BigDecimal totalAmount;
     private Integer totalItems;
+    private Long version;  // Same value as the ETag of GET /api/v1/cart
     private LocalDateTime updatedAt;
 
     @Data
@@ -30,7 +39,66 @@ public class CartResponse {
         private Integer quantity;
         private BigDecimal unitPrice;
         private BigDecimal totalPrice;
-        private LocalDateTime addedAt;
+
+        public Long getItemId() {
+            return itemId;
+        }
+
+        public void setItemId(Long itemId) {
+            this.itemId = itemId;
+        }
+
+        public Long getProductId() {
+            return productId;
+        }
+
+        public void setProductId(Long productId) {
+            this.productId = productId;
+        }
+
+        public String getProductName() {
+            return productName;
+        }
+
+        public void setProductName(String productName) {
+            this.productName = productName;
+        }
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(Integer quantity) {
+            this.quantity = quantity;
+        }
+
+        public BigDecimal getUnitPrice() {
+            return unitPrice;
+        }
+
+        public void setUnitPrice(BigDecimal unitPrice) {
+            this.unitPrice = unitPrice;
+        }
+
+        public BigDecimal getTotalPrice() {
+            return totalPrice;
+        }
+
+        public void setTotalPrice(BigDecimal totalPrice) {
+            this.totalPrice = totalPrice;
+        }
+    }
+
+    public static CartResponse from(Cart cart) {
+        List<CartItemResponse> items = new ArrayList<>(cart.getItems().size());
+        int totalItems = 0;
+        for (CartItem item : cart.getItems()) {
+            items.add(new CartItemResponse(item.getId(), item.getProductId(), item.getProductName(),
+                    item.getQuantity(), item.getUnitPrice(), item.getTotalPrice()));
+            totalItems += item.getQuantity();
+        }
+        return new CartResponse(cart.getId(), cart.getUserEmail(), items, cart.getTotalAmount(),
+                totalItems, cart.getVersion(), cart.getUpdatedAt());
     }
 
     public Long getCartId() {
@@ -73,6 +141,14 @@ public class CartResponse {
         this.totalItems = totalItems;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public LocalDateTime getUpdatedAt() {
         return updatedAt;
     }
@@ -80,4 +156,4 @@ public class CartResponse {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,75 @@
+package com.ecommerce.cart_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One entry of product-catalog-service's change feed (GET /api/v1/products/changes)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangeResponse {
+    private Long id;
+    private Long productId;
+    private String changeType;  // CREATED, UPDATED or DELETED
+    private String name;
+    private BigDecimal price;
+    private LocalDateTime changedAt;
+
+    public boolean isDeleted() {
+        return "DELETED".equals(changeType);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getChangeType() {
+        return changeType;
+    }
+
+    public void setChangeType(String changeType) {
+        this.changeType = changeType;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+}
@@ -1,5 +1,6 @@
 package com.ecommerce.cart_service.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.Data;
@@ -13,21 +14,35 @@ import java.util.List;
 
 @Entity
 @Table(name = "carts",
-        uniqueConstraints = @UniqueConstraint(columnNames = "user_email"))
+        uniqueConstraints = @UniqueConstraint(columnNames = "user_email"),
+        indexes = @Index(name = "idx_carts_updated_at", columnList = "updated_at"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Cart {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
+    private Long id;  // Assigned by CartIdGenerator
 
     @Column(name = "user_email", nullable = false, unique = true)
     private String userEmail;
 
-    @Column(name = "total_amount", precision = 10, scale = 2)
-    private BigDecimal totalAmount = BigDecimal.ZERO;
+    /**
+     * Cart total in minor units, maintained incrementally from line deltas.
+     * Not updatable through the entity: stores write it with atomic
+     * "total_amount = total_amount + delta" statements so concurrent changes can't overwrite each other.
+     */
+    @Column(name = "total_amount", precision = 10, scale = 2, updatable = false)
+    @Convert(converter = MinorUnits.Converter.class)
+    @JsonIgnore
+    private long totalAmountMinor;
+
+    /**
+     * Incremented on every change to the cart or its lines and served as the cart's ETag.
+     * Like the total, written only by the stores with atomic "version = version + 1" statements.
+     */
+    @Column(name = "version", updatable = false, columnDefinition = "bigint not null default 0")
+    private long version;
 
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -41,7 +56,9 @@ public class Cart {
 
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
         updatedAt = LocalDateTime.now();
     }
 
@@ -50,10 +67,22 @@ public class Cart {
         updatedAt = LocalDateTime.now();
     }
 
-    public void calculateTotalAmount() {
-        this.totalAmount = items.stream()
-                .map(CartItem::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    /**
+     * Apply the change of one line to the total (new line total minus old line total)
+     */
+    public void applyTotalDelta(long deltaMinor) {
+        this.totalAmountMinor += deltaMinor;
+    }
+
+    /**
+     * Full recomputation from the lines - only for the on-demand consistency check
+     */
+    public long computeTotalFromItems() {
+        long total = 0;
+        for (CartItem item : items) {
+            total += item.getTotalPriceMinor();
+        }
+        return total;
     }
 
     public Long getId() {
@@ -73,11 +102,27 @@ public class Cart {
     }
 
     public BigDecimal getTotalAmount() {
-        return totalAmount;
+        return MinorUnits.toDecimal(totalAmountMinor);
     }
 
     public void setTotalAmount(BigDecimal totalAmount) {
-        this.totalAmount = totalAmount;
+        this.totalAmountMinor = MinorUnits.fromDecimal(totalAmount);
+    }
+
+    public long getTotalAmountMinor() {
+        return totalAmountMinor;
+    }
+
+    public void setTotalAmountMinor(long totalAmountMinor) {
+        this.totalAmountMinor = totalAmountMinor;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
     }
 
     public LocalDateTime getCreatedAt() {
@@ -1,6 +1,7 @@
 package com.ecommerce.cart_service.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -17,8 +18,7 @@ import java.math.BigDecimal;
 public class CartItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
+    private Long id;  // Assigned by CartIdGenerator
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cart_id", nullable = false)
@@ -34,15 +34,25 @@ public class CartItem {
     @Column(name = "quantity", nullable = false)
     private Integer quantity;
 
+    // Money in minor units (cents), see MinorUnits
     @Column(name = "unit_price", nullable = false, precision = 10, scale = 2)
-    private BigDecimal unitPrice;
+    @Convert(converter = MinorUnits.Converter.class)
+    @JsonIgnore
+    private long unitPriceMinor;
 
     @Column(name = "total_price", nullable = false, precision = 10, scale = 2)
-    private BigDecimal totalPrice;
+    @Convert(converter = MinorUnits.Converter.class)
+    @JsonIgnore
+    private long totalPriceMinor;
+
+    // Quantity currently held in inventory for this line (see CartReservationPolicy).
+    // Null on lines written before holds were tracked - those were always fully reserved.
+    @Column(name = "reserved_quantity")
+    private Integer reservedQuantity;
 
     public void calculateTotalPrice() {
-        if (quantity != null && unitPrice != null) {
-            this.totalPrice = unitPrice.multiply(BigDecimal.valueOf(quantity));
+        if (quantity != null) {
+            this.totalPriceMinor = Math.multiplyExact(unitPriceMinor, (long) quantity);
         }
     }
 
@@ -87,18 +97,42 @@ public class CartItem {
     }
 
     public BigDecimal getUnitPrice() {
-        return unitPrice;
+        return MinorUnits.toDecimal(unitPriceMinor);
     }
 
     public void setUnitPrice(BigDecimal unitPrice) {
-        this.unitPrice = unitPrice;
+        this.unitPriceMinor = MinorUnits.fromDecimal(unitPrice);
     }
 
     public BigDecimal getTotalPrice() {
-        return totalPrice;
+        return MinorUnits.toDecimal(totalPriceMinor);
     }
 
     public void setTotalPrice(BigDecimal totalPrice) {
-        this.totalPrice = totalPrice;
+        this.totalPriceMinor = MinorUnits.fromDecimal(totalPrice);
+    }
+
+    public Integer getReservedQuantity() {
+        return reservedQuantity;
+    }
+
+    public void setReservedQuantity(Integer reservedQuantity) {
+        this.reservedQuantity = reservedQuantity;
+    }
+
+    public long getUnitPriceMinor() {
+        return unitPriceMinor;
+    }
+
+    public void setUnitPriceMinor(long unitPriceMinor) {
+        this.unitPriceMinor = unitPriceMinor;
+    }
+
+    public long getTotalPriceMinor() {
+        return totalPriceMinor;
+    }
+
+    public void setTotalPriceMinor(long totalPriceMinor) {
+        this.totalPriceMinor = totalPriceMinor;
     }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.ecommerce.cart_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * How far this service has consumed an external change feed (last processed entry ID),
+ * so polling resumes where it stopped after a restart
+ */
+@Entity
+@Table(name = "feed_positions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedPosition {
+
+    @Id
+    @Column(name = "feed")
+    private String feed;
+
+    @Column(name = "position", nullable = false)
+    private Long position;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public String getFeed() {
+        return feed;
+    }
+
+    public void setFeed(String feed) {
+        this.feed = feed;
+    }
+
+    public Long getPosition() {
+        return position;
+    }
+
+    public void setPosition(Long position) {
+        this.position = position;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
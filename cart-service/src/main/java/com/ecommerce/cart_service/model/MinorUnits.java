@@ -0,0 +1,49 @@
+package com.ecommerce.cart_service.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money as a long count of minor units (cents).
+ *
+ * Cart arithmetic runs on longs; BigDecimal is only created at the edges -
+ * JSON output and the numeric(10,2) columns, via Converter below.
+ */
+public final class MinorUnits {
+
+    private static final int SCALE = 2;
+
+    private MinorUnits() {
+    }
+
+    public static long fromDecimal(BigDecimal amount) {
+        if (amount == null) {
+            return 0L;
+        }
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    /**
+     * Maps a long minor-unit field onto an existing numeric(10,2) column
+     */
+    @Converter
+    public static class Converter implements AttributeConverter<Long, BigDecimal> {
+
+        @Override
+        public BigDecimal convertToDatabaseColumn(Long minorUnits) {
+            return minorUnits == null ? null : toDecimal(minorUnits);
+        }
+
+        @Override
+        public Long convertToEntityAttribute(BigDecimal amount) {
+            return fromDecimal(amount);
+        }
+    }
+}
@@ -2,8 +2,12 @@ package com.ecommerce.cart_service.repository;
 
 import com.ecommerce.cart_service.model.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +16,42 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     List<CartItem> findByCartId(Long cartId);
     Optional<CartItem> findByCartIdAndProductId(Long cartId, Long productId);
     void deleteByCartIdAndProductId(Long cartId, Long productId);
+
+    // Add quantity to the cart's line for this product, creating the line if needed, in one statement.
+    // A new line starts with nothing reserved; an existing line keeps its reserved quantity.
+    @Modifying
+    @Query(value = "INSERT INTO cart_items (id, cart_id, product_id, product_name, quantity, unit_price, total_price, reserved_quantity) " +
+            "VALUES (:id, :cartId, :productId, :productName, :quantity, :unitPrice, :unitPrice * :quantity, 0) " +
+            "ON CONFLICT (cart_id, product_id) DO UPDATE SET " +
+            "quantity = cart_items.quantity + EXCLUDED.quantity, " +
+            "total_price = cart_items.unit_price * (cart_items.quantity + EXCLUDED.quantity)", nativeQuery = true)
+    int upsertQuantity(@Param("id") Long id,
+                       @Param("cartId") Long cartId,
+                       @Param("productId") Long productId,
+                       @Param("productName") String productName,
+                       @Param("quantity") Integer quantity,
+                       @Param("unitPrice") BigDecimal unitPrice);
+
+    // Set a line's quantity at its stored price; returns how far its total moved, in minor units.
+    // Not @Modifying: RETURNING makes it a query, like CartRepository.incrementVersion.
+    @Query(value = "UPDATE cart_items ci SET quantity = :quantity, total_price = ci.unit_price * :quantity " +
+            "FROM cart_items old WHERE ci.id = :id AND old.id = ci.id " +
+            "RETURNING CAST(ROUND((ci.total_price - old.total_price) * 100) AS BIGINT)", nativeQuery = true)
+    long updateQuantity(@Param("id") Long id, @Param("quantity") Integer quantity);
+
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.id IN :cartIds")
+    int deleteByCartIds(@Param("cartIds") List<Long> cartIds);
+
+    // Bring every cart's line for the product to the catalog's current name and price
+    @Modifying
+    @Query(value = "UPDATE cart_items SET unit_price = :unitPrice, total_price = :unitPrice * quantity, " +
+            "product_name = COALESCE(:productName, product_name) " +
+            "WHERE product_id = :productId " +
+            "AND (unit_price <> :unitPrice OR product_name <> :productName)", nativeQuery = true)
+    int repriceProduct(@Param("productId") Long productId,
+                       @Param("unitPrice") BigDecimal unitPrice,
+                       @Param("productName") String productName);
 }
 //public interface CartItemRepository extends JpaRepository<CartItem, Long> {
 //    List<CartItem> findByCart_Id(Long cartId);
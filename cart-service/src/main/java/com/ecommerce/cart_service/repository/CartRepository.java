@@ -2,10 +2,14 @@ package com.ecommerce.cart_service.repository;
 
 import com.ecommerce.cart_service.model.Cart;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,9 +18,6 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
 
     Optional<Cart> findByUserEmail(String userEmail);
 
-    // Find all carts for a user (for cleanup if duplicates exist)
-    List<Cart> findAllByUserEmail(String userEmail);
-
     void deleteByUserEmail(String userEmail);
 
     // Check if cart exists for user
@@ -25,4 +26,73 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
     // Custom query to get cart with items
     @Query("SELECT c FROM Cart c LEFT JOIN FETCH c.items WHERE c.userEmail = :userEmail")
     Optional<Cart> findByUserEmailWithItems(@Param("userEmail") String userEmail);
-}
\ No newline at end of file
+
+    // Create the user's cart unless it already exists - concurrent callers can't create duplicates
+    @Modifying
+    @Query(value = "INSERT INTO carts (id, user_email, total_amount, version, created_at, updated_at) " +
+            "VALUES (:id, :userEmail, 0, 0, now(), now()) " +
+            "ON CONFLICT (user_email) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("id") Long id, @Param("userEmail") String userEmail);
+
+    // Move the stored total by one line's change - atomic, so concurrent updates can't lose each other's delta
+    @Modifying
+    @Query(value = "UPDATE carts SET total_amount = total_amount + :deltaMinor * 0.01, updated_at = now() " +
+            "WHERE id = :cartId", nativeQuery = true)
+    int addToTotal(@Param("cartId") Long cartId, @Param("deltaMinor") long deltaMinor);
+
+    @Modifying
+    @Query(value = "UPDATE carts SET total_amount = :totalMinor * 0.01, updated_at = now() " +
+            "WHERE id = :cartId", nativeQuery = true)
+    int setTotal(@Param("cartId") Long cartId, @Param("totalMinor") long totalMinor);
+
+    // Just the version (ETag) of a cart, by primary key - no items loaded
+    @Query("SELECT c.version FROM Cart c WHERE c.id = :cartId")
+    Optional<Long> findVersionById(@Param("cartId") Long cartId);
+
+    // Lock the cart row until the transaction ends - taken before its lines are changed in SQL
+    @Query(value = "SELECT id FROM carts WHERE id = :cartId FOR UPDATE", nativeQuery = true)
+    Long lockById(@Param("cartId") Long cartId);
+
+    // Version (ETag) of the cart - bumped once per change, the row lock orders concurrent changes.
+    // Not @Modifying: RETURNING makes it a query, so the new version comes back in the same round trip.
+    @Query(value = "UPDATE carts SET version = version + 1, updated_at = now() WHERE id = :cartId " +
+            "RETURNING version", nativeQuery = true)
+    long incrementVersion(@Param("cartId") Long cartId);
+
+    // Written-behind snapshots carry their own version; never move it backwards
+    @Modifying
+    @Query(value = "UPDATE carts SET version = GREATEST(version, :version) WHERE id = :cartId", nativeQuery = true)
+    int raiseVersion(@Param("cartId") Long cartId, @Param("version") long version);
+
+    // Users with a line for the product at another price or name - their carts change on repricing.
+    // The carts are locked (in ID order) before their totals are moved, as updating a line locks its cart first,
+    // so the delta below is computed from quantities no other transaction is about to change.
+    @Query(value = "SELECT c.user_email FROM carts c WHERE c.id IN (" +
+            "SELECT ci.cart_id FROM cart_items ci WHERE ci.product_id = :productId " +
+            "AND (ci.unit_price <> :unitPrice OR ci.product_name <> :productName)) " +
+            "ORDER BY c.id FOR UPDATE", nativeQuery = true)
+    List<String> findUserEmailsWithStaleLines(@Param("productId") Long productId,
+                                              @Param("unitPrice") BigDecimal unitPrice,
+                                              @Param("productName") String productName);
+
+    // Move every affected cart's total by its lines' price difference, one statement per product.
+    // Must run before the lines themselves are repriced.
+    @Modifying
+    @Query(value = "UPDATE carts c SET total_amount = c.total_amount + d.delta, " +
+            "version = c.version + 1, updated_at = now() " +
+            "FROM (SELECT cart_id, SUM((:unitPrice - unit_price) * quantity) AS delta FROM cart_items " +
+            "      WHERE product_id = :productId " +
+            "      AND (unit_price <> :unitPrice OR product_name <> :productName) GROUP BY cart_id) d " +
+            "WHERE c.id = d.cart_id", nativeQuery = true)
+    int applyRepricedTotals(@Param("productId") Long productId,
+                            @Param("unitPrice") BigDecimal unitPrice,
+                            @Param("productName") String productName);
+
+    List<Cart> findByUserEmailIn(Collection<String> userEmails);
+
+    // Oldest idle carts first (idx_carts_updated_at), locked for the sweep; carts another
+    // request is changing right now are skipped rather than waited for
+    @Query(value = "SELECT * FROM carts WHERE updated_at < :cutoff ORDER BY updated_at " +
+            "LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Cart> findIdleForUpdate(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
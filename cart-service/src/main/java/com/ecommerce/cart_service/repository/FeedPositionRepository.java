@@ -0,0 +1,27 @@
+package com.ecommerce.cart_service.repository;
+
+import com.ecommerce.cart_service.model.FeedPosition;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface FeedPositionRepository extends JpaRepository<FeedPosition, String> {
+
+    // Make sure the feed has a row, so consumers always have something to lock
+    @Modifying
+    @Query(value = "INSERT INTO feed_positions (feed, position, updated_at) VALUES (:feed, 0, now()) " +
+            "ON CONFLICT (feed) DO NOTHING", nativeQuery = true)
+    int createIfAbsent(@Param("feed") String feed);
+
+    // Current position, locked until the transaction ends - one instance applies a feed at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM FeedPosition f WHERE f.feed = :feed")
+    Optional<FeedPosition> findForUpdate(@Param("feed") String feed);
+}
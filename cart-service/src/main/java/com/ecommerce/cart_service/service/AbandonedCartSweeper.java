@@ -0,0 +1,121 @@
+package com.ecommerce.cart_service.service;
+
+import com.ecommerce.cart_service.client.InventoryServiceClient;
+import com.ecommerce.cart_service.dto.BulkReleaseRequest;
+import com.ecommerce.cart_service.dto.BulkReleaseResponse;
+import com.ecommerce.cart_service.model.Cart;
+import com.ecommerce.cart_service.store.CartStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Expires abandoned carts, so carts and their inventory holds don't drift apart.
+ *
+ * Carts not changed for cart.abandoned.idle-minutes are processed in chunks of
+ * cart.abandoned.chunk-size, one transaction per chunk:
+ * - the chunk is found through idx_carts_updated_at and locked (carts in use are skipped)
+ * - every reservation of the chunk is released with ONE bulk inventory call
+ * - the carts and their lines are deleted
+ * If the inventory call fails the chunk rolls back and is retried on the next run.
+ *
+ * Metrics: cart.abandoned.swept (carts deleted), cart.abandoned.units.released
+ * (units returned to stock).
+ */
+@Service
+public class AbandonedCartSweeper {
+
+    @Autowired
+    private CartStore cartStore;
+
+    @Autowired
+    private InventoryServiceClient inventoryClient;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${cart.abandoned.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cart.abandoned.idle-minutes:1440}")
+    private long idleMinutes;
+
+    @Value("${cart.abandoned.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${cart.abandoned.max-chunks-per-run:50}")
+    private int maxChunksPerRun;
+
+    private Counter cartsSwept;
+    private Counter unitsReleased;
+
+    @PostConstruct
+    public void registerMetrics() {
+        cartsSwept = Counter.builder("cart.abandoned.swept")
+                .description("Abandoned carts deleted")
+                .register(meterRegistry);
+        unitsReleased = Counter.builder("cart.abandoned.units.released")
+                .description("Inventory units released from abandoned carts")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${cart.abandoned.cron:0 */15 * * * *}")
+    public void sweepAbandonedCarts() {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(idleMinutes);
+        int totalCarts = 0;
+        int totalUnits = 0;
+        try {
+            for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+                int[] swept = transactionTemplate.execute(status -> sweepChunk(cutoff));
+                // Counted once the chunk has committed
+                cartsSwept.increment(swept[0]);
+                unitsReleased.increment(swept[1]);
+                totalCarts += swept[0];
+                totalUnits += swept[1];
+                if (swept[0] < chunkSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            System.err.println(">>> Abandoned cart sweep stopped, will retry next run: " + e.getMessage());
+        }
+
+        if (totalCarts > 0) {
+            System.out.println(">>> Swept " + totalCarts + " abandoned carts idle since " + cutoff +
+                    ", released " + totalUnits + " units");
+        }
+    }
+
+    /**
+     * @return {carts deleted, units released}
+     */
+    private int[] sweepChunk(LocalDateTime cutoff) {
+        List<Cart> carts = cartStore.findIdleForUpdate(cutoff, chunkSize);
+        if (carts.isEmpty()) {
+            return new int[]{0, 0};
+        }
+
+        List<String> cartOrderIds = carts.stream().map(cart -> "CART-" + cart.getId()).toList();
+        BulkReleaseResponse released = inventoryClient.releaseReservationsBatch(
+                new BulkReleaseRequest(cartOrderIds, "CART_ABANDONED"));
+        cartStore.deleteCarts(carts);
+
+        int units = released.getUnitsReleased() != null ? released.getUnitsReleased() : 0;
+        return new int[]{carts.size(), units};
+    }
+}
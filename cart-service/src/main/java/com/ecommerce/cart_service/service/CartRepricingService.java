@@ -0,0 +1,121 @@
+package com.ecommerce.cart_service.service;
+
+import com.ecommerce.cart_service.client.ProductServiceClient;
+import com.ecommerce.cart_service.dto.ProductChangeResponse;
+import com.ecommerce.cart_service.dto.ProductResponse;
+import com.ecommerce.cart_service.model.FeedPosition;
+import com.ecommerce.cart_service.repository.FeedPositionRepository;
+import com.ecommerce.cart_service.store.CartStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps cart prices current in the background by consuming product-catalog-service's
+ * change feed, so cart reads and updates never call the catalog for prices.
+ *
+ * - Polls GET /api/v1/products/changes every cart.repricing.poll-interval-ms
+ * - Each page is collapsed to the latest change per product and applied with a
+ *   couple of set-based statements per product, however many carts hold it
+ * - A page is applied in one transaction that locks the feed's feed_positions row, checks
+ *   the position is still the one the page was fetched from and stores the new one.
+ *   Totals move by a delta computed from the lines' current prices, so a page must never
+ *   be applied twice: an instance that finds the position moved on re-fetches from there.
+ * - Lines of deleted products are left alone; creating the order rejects them
+ */
+@Service
+public class CartRepricingService {
+
+    static final String PRODUCT_CHANGES_FEED = "product-changes";
+
+    @Autowired
+    private ProductServiceClient productServiceClient;
+
+    @Autowired
+    private CartStore cartStore;
+
+    @Autowired
+    private FeedPositionRepository feedPositionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${cart.repricing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cart.repricing.page-size:500}")
+    private int pageSize;
+
+    @Scheduled(fixedDelayString = "${cart.repricing.poll-interval-ms:30000}")
+    public void pollProductChanges() {
+        if (!enabled) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> feedPositionRepository.createIfAbsent(PRODUCT_CHANGES_FEED));
+        long since = currentPosition();
+        try {
+            List<ProductChangeResponse> changes;
+            do {
+                // Fetched outside the transaction, so no row lock is held during the catalog call
+                changes = productServiceClient.getProductChanges(since, pageSize);
+                if (changes.isEmpty()) {
+                    break;
+                }
+                long fetchedFrom = since;
+                List<ProductChangeResponse> page = changes;
+                Integer carts = transactionTemplate.execute(status -> applyPage(fetchedFrom, page));
+                if (carts == null) {
+                    // Another instance applied this page (or part of it) meanwhile - continue from its position
+                    since = currentPosition();
+                    continue;
+                }
+                since = changes.get(changes.size() - 1).getId();
+                System.out.println(">>> Applied " + changes.size() + " product changes, repriced " + carts +
+                        " carts, feed position " + since);
+            } while (changes.size() == pageSize);
+        } catch (Exception e) {
+            System.err.println(">>> Product change feed poll failed at position " + since + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Apply one page under the feed position's row lock
+     * @return Number of carts repriced, or null if the position is no longer the one the page was fetched from
+     */
+    private Integer applyPage(long fetchedFrom, List<ProductChangeResponse> changes) {
+        FeedPosition position = feedPositionRepository.findForUpdate(PRODUCT_CHANGES_FEED).orElseThrow();
+        if (position.getPosition() != fetchedFrom) {
+            return null;
+        }
+
+        // Only the latest state of each product matters
+        Map<Long, ProductResponse> latest = new LinkedHashMap<>();
+        for (ProductChangeResponse change : changes) {
+            if (change.isDeleted() || change.getPrice() == null) {
+                latest.remove(change.getProductId());
+            } else {
+                latest.put(change.getProductId(), new ProductResponse(change.getProductId(),
+                        change.getName(), null, change.getPrice(), null));
+            }
+        }
+
+        int carts = latest.isEmpty() ? 0 : cartStore.repriceProducts(latest.values());
+        position.setPosition(changes.get(changes.size() - 1).getId());
+        position.setUpdatedAt(LocalDateTime.now());
+        return carts;
+    }
+
+    private long currentPosition() {
+        return feedPositionRepository.findById(PRODUCT_CHANGES_FEED)
+                .map(FeedPosition::getPosition)
+                .orElse(0L);
+    }
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.cart_service.service;
+
+/**
+ * When cart lines hold inventory (cart.reservation.policy)
+ */
+public enum CartReservationPolicy {
+
+    /**
+     * Never hold stock for carts - availability is only validated.
+     * Stock is reserved when the order is created.
+     */
+    NONE,
+
+    /**
+     * Validate on add, reserve everything when checkout begins (POST /api/v1/cart/checkout)
+     */
+    LAZY,
+
+    /**
+     * Reserve on every add and quantity change
+     */
+    EAGER
+}
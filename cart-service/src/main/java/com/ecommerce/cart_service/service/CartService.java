@@ -1,13 +1,39 @@
 package com.ecommerce.cart_service.service;
 
 import com.ecommerce.cart_service.dto.AddToCartRequest;
+import com.ecommerce.cart_service.dto.CartResponse;
 import com.ecommerce.cart_service.dto.UpdateCartItemRequest;
-import com.ecommerce.cart_service.model.Cart;
+
+import java.util.List;
+import java.util.Map;
 
 public interface CartService {
-    Cart getCartByUserEmail(String userEmail);
-    Cart addToCart(String userEmail, AddToCartRequest request);
-    Cart updateCartItem(String userEmail, Long cartItemId, UpdateCartItemRequest request);
-    Cart removeFromCart(String userEmail, Long cartItemId);
+    CartResponse getCartByUserEmail(String userEmail);
+    CartResponse addToCart(String userEmail, AddToCartRequest request);
+
+    /**
+     * Add several products at once: one catalog call, one inventory call, one batched write
+     */
+    CartResponse addItemsToCart(String userEmail, List<AddToCartRequest> items);
+
+    /**
+     * Merge a guest cart into the user's cart on login. Each line ends up with
+     * max(user quantity, guest quantity), so repeating the merge is harmless.
+     */
+    CartResponse mergeGuestCart(String userEmail, List<AddToCartRequest> guestItems);
+    CartResponse updateCartItem(String userEmail, Long cartItemId, UpdateCartItemRequest request);
+    CartResponse removeFromCart(String userEmail, Long cartItemId);
     void clearCart(String userEmail);
+
+    /**
+     * Start checkout: reserve every line that isn't held yet, all or nothing (LAZY/EAGER),
+     * or only validate availability (NONE). See CartReservationPolicy.
+     */
+    CartResponse beginCheckout(String userEmail);
+
+    /**
+     * Recompute the cart total from its lines and repair the stored total if it drifted.
+     * Totals are otherwise maintained incrementally, so this is the only full recomputation.
+     */
+    Map<String, Object> verifyCartTotal(String userEmail);
 }
\ No newline at end of file
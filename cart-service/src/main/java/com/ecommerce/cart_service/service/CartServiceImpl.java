@@ -2,6 +2,8 @@ package com.ecommerce.cart_service.service;
 
 import com.ecommerce.cart_service.client.ProductServiceClient;
 import com.ecommerce.cart_service.dto.AddToCartRequest;
+import com.ecommerce.cart_service.dto.BatchReservationRequest;
+import com.ecommerce.cart_service.dto.CartResponse;
 import com.ecommerce.cart_service.dto.StockReservationRequest;
 import com.ecommerce.cart_service.dto.StockValidationResponse;
 import com.ecommerce.cart_service.client.InventoryServiceClient;
@@ -9,24 +11,24 @@ import com.ecommerce.cart_service.dto.ProductResponse;
 import com.ecommerce.cart_service.dto.UpdateCartItemRequest;
 import com.ecommerce.cart_service.model.Cart;
 import com.ecommerce.cart_service.model.CartItem;
-import com.ecommerce.cart_service.repository.CartRepository;
-import com.ecommerce.cart_service.repository.CartItemRepository;
+import com.ecommerce.cart_service.model.MinorUnits;
+import com.ecommerce.cart_service.store.CartStore;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class CartServiceImpl implements CartService {
 
     @Autowired
-    private CartRepository cartRepository;
-
-    @Autowired
-    private CartItemRepository cartItemRepository;
+    private CartStore cartStore;
 
     @Autowired
     private ProductServiceClient productServiceClient;
@@ -34,34 +36,23 @@ public class CartServiceImpl implements CartService {
     @Autowired
     private InventoryServiceClient inventoryClient;
 
-    @Override
-    @Transactional(readOnly = true)
-    public Cart getCartByUserEmail(String userEmail) {
-        // First try to get single cart
-        Optional<Cart> singleCart = cartRepository.findByUserEmail(userEmail);
-
-        if (singleCart.isPresent()) {
-            return singleCart.get();
-        }
+    @Value("${cart.reservation.policy:EAGER}")
+    private CartReservationPolicy reservationPolicy;
 
-        // Check if multiple carts exist (shouldn't happen with unique constraint)
-        List<Cart> allCarts = cartRepository.findAllByUserEmail(userEmail);
+    // Under NONE/LAZY, products with at most this many units available are still held
+    // on add, so the last units can't be sold from under a cart. 0 disables it.
+    @Value("${cart.reservation.scarce-threshold:0}")
+    private int scarceThreshold;
 
-        if (allCarts.isEmpty()) {
-            // No cart exists, create a new one
-            return findOrCreateCart(userEmail);
-        } else if (allCarts.size() == 1) {
-            return allCarts.get(0);
-        } else {
-            // Multiple carts exist - clean up and return the best one
-            System.err.println("WARNING: Found " + allCarts.size() + " carts for user: " + userEmail + ". Cleaning up duplicates.");
-            return cleanupDuplicateCarts(allCarts, userEmail);
-        }
+    @Override
+    @Transactional
+    public CartResponse getCartByUserEmail(String userEmail) {
+        return CartResponse.from(cartStore.findOrCreate(userEmail));
     }
 
     @Override
     @Transactional
-    public Cart addToCart(String userEmail, AddToCartRequest request) {
+    public CartResponse addToCart(String userEmail, AddToCartRequest request) {
         // 1. Validate stock availability
         StockValidationResponse validation = inventoryClient.validateStock(
                 request.getProductId(), request.getQuantity());
@@ -70,239 +61,443 @@ public class CartServiceImpl implements CartService {
             throw new RuntimeException("Insufficient stock: " + validation.getMessage());
         }
 
-        Cart cart = findOrCreateCart(userEmail);
+        Cart cart = cartStore.findOrCreate(userEmail);
         String cartOrderId = "CART-" + cart.getId();
 
-        // 2. Check if item already exists in cart
-        Optional<CartItem> existingItem = cartItemRepository.findByCartIdAndProductId(
-                cart.getId(), request.getProductId());
-
+        // 2. Name and price come from the existing line, or from the catalog for a new product
+        Optional<CartItem> existingItem = findItemByProduct(cart, request.getProductId());
+        int reservedBefore = existingItem.map(CartServiceImpl::reservedQuantity).orElse(0);
+        CartItem candidate = new CartItem();
+        candidate.setProductId(request.getProductId());
+        candidate.setQuantity(request.getQuantity());
+        candidate.setReservedQuantity(0);
         if (existingItem.isPresent()) {
-            // Update existing item AND adjust reservation
-            CartItem item = existingItem.get();
-            int oldQuantity = item.getQuantity();
-            int newQuantity = oldQuantity + request.getQuantity();
-
-            // Adjust inventory reservation
-            inventoryClient.adjustReservationQuantity(cartOrderId,
-                    request.getProductId(), newQuantity, userEmail);
-
-            item.setQuantity(newQuantity);
-            cartItemRepository.save(item);
+            candidate.setProductName(existingItem.get().getProductName());
+            candidate.setUnitPrice(existingItem.get().getUnitPrice());
         } else {
-            // Create new cart item AND reserve stock
             ProductResponse product = getProductInfo(request.getProductId());
+            candidate.setProductName(product.getName());
+            candidate.setUnitPrice(product.getPrice());
+        }
+        candidate.calculateTotalPrice();
+
+        // 3. Add to the cart in one atomic upsert - concurrent adds from several tabs
+        //    end up on the same line with their quantities summed
+        Cart updatedCart = cartStore.addItem(cart, candidate);
+        CartItem line = findItemByProduct(updatedCart, request.getProductId())
+                .orElseThrow(() -> new RuntimeException("Cart item not found after update"));
+        boolean created = line.getId().equals(candidate.getId());
 
-            // Reserve stock for new item
-            StockReservationRequest reservationRequest = new StockReservationRequest();
-            reservationRequest.setProductId(request.getProductId());
-            reservationRequest.setQuantity(request.getQuantity());
-            reservationRequest.setOrderId(cartOrderId);
-            reservationRequest.setUserEmail(userEmail);
-            reservationRequest.setExpirationMinutes(60); // Longer for cart
-            reservationRequest.setNotes("Cart item reservation");
-
-            inventoryClient.reserveStock(reservationRequest);
-
-            // Create cart item
-            CartItem newItem = new CartItem();
-            newItem.setCart(cart);
-            newItem.setProductId(product.getId());
-            newItem.setProductName(product.getName());
-            newItem.setQuantity(request.getQuantity());
-            newItem.setUnitPrice(product.getPrice());
-            newItem.calculateTotalPrice();
-
-            cartItemRepository.save(newItem);
+        if (!holdsOnAdd(validation)) {
+            return CartResponse.from(updatedCart);
         }
 
-        // Refresh and return cart
-        cart = cartRepository.findByUserEmailWithItems(userEmail)
-                .orElseThrow(() -> new RuntimeException("Cart not found after update"));
-        cart.calculateTotalAmount();
-        return cartRepository.save(cart);
-    }
-//
-//    @Override
-//    @Transactional
-//    public Cart updateCartItem(String userEmail, Long cartItemId, UpdateCartItemRequest request) {
-//        if (request.getQuantity() == null || request.getQuantity() <= 0) {
-//            throw new RuntimeException("Quantity must be greater than 0");
-//        }
-//
-//        Cart cart = getCartByUserEmail(userEmail);
-//
-//        CartItem cartItem = cartItemRepository.findById(cartItemId)
-//                .orElseThrow(() -> new RuntimeException("Cart item not found"));
-//
-//        // Verify item belongs to user's cart
-//        if (!cartItem.getCart().getUserEmail().equals(userEmail)) {
-//            throw new RuntimeException("Cart item does not belong to this user");
-//        }
-//
-//        // Check stock availability
-//        ProductResponse product = getProductInfo(cartItem.getProductId());
-//
-//        if (product.getStockQuantity() < request.getQuantity()) {
-//            throw new RuntimeException("Insufficient stock. Available: " + product.getStockQuantity());
-//        }
-//
-//        cartItem.setQuantity(request.getQuantity());
-//        cartItem.setUnitPrice(product.getPrice()); // Update price in case it changed
-//        cartItem.calculateTotalPrice();
-//        cartItemRepository.save(cartItem);
-//
-//        // Refresh and recalculate
-//        cart = cartRepository.findByUserEmailWithItems(userEmail)
-//                .orElseThrow(() -> new RuntimeException("Cart not found after update"));
-//        cart.calculateTotalAmount();
-//        return cartRepository.save(cart);
-//    }
-@Override
-@Transactional
-public Cart updateCartItem(String userEmail, Long cartItemId, UpdateCartItemRequest request) {
-    System.out.println(">>> Updating cart item ID: " + cartItemId + " for user: " + userEmail);
-
-    // Validate input
-    if (request.getQuantity() == null || request.getQuantity() <= 0) {
-        throw new RuntimeException("Quantity must be greater than 0");
+        // 4. Hold the line's full quantity: move the line's existing hold, or reserve the
+        //    whole quantity if it has none - or had one that expired in inventory since
+        try {
+            if (reservedBefore == 0 || !moveHold(cart, request.getProductId(), line.getQuantity())) {
+                StockReservationRequest reservationRequest = new StockReservationRequest();
+                reservationRequest.setProductId(request.getProductId());
+                reservationRequest.setQuantity(line.getQuantity());
+                reservationRequest.setOrderId(cartOrderId);
+                reservationRequest.setUserEmail(userEmail);
+                reservationRequest.setExpirationMinutes(60); // Longer for cart
+                reservationRequest.setNotes("Cart item reservation");
+
+                inventoryClient.reserveStock(reservationRequest);
+            }
+        } catch (Exception e) {
+            // Undo our change to the line (JPA rolls back anyway; the in-memory store needs it)
+            if (created) {
+                cartStore.removeItem(updatedCart, line.getId());
+            } else {
+                cartStore.updateItem(updatedCart, line.getId(), line.getQuantity() - request.getQuantity());
+            }
+            throw new RuntimeException("Failed to reserve stock: " + e.getMessage());
+        }
+
+        return CartResponse.from(cartStore.markReserved(updatedCart, Map.of(line.getId(), line.getQuantity())));
     }
 
-    // Find the cart item first
-    CartItem cartItem = cartItemRepository.findById(cartItemId)
-            .orElseThrow(() -> new RuntimeException("Cart item not found"));
+    @Override
+    @Transactional
+    public CartResponse addItemsToCart(String userEmail, List<AddToCartRequest> items) {
+        // Duplicate products in the request add up
+        Map<Long, Integer> requested = new LinkedHashMap<>();
+        for (AddToCartRequest item : items) {
+            requested.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        Cart cart = cartStore.findOrCreate(userEmail);
+        return CartResponse.from(applyBatch(cart, requested));
+    }
 
-    // Get the cart through the item relationship (no creation risk!)
-    Cart cart = cartItem.getCart();
-    System.out.println(">>> Found cart ID: " + cart.getId() + " for item: " + cartItemId);
+    @Override
+    @Transactional
+    public CartResponse mergeGuestCart(String userEmail, List<AddToCartRequest> guestItems) {
+        Map<Long, Integer> guestQuantities = new LinkedHashMap<>();
+        for (AddToCartRequest item : guestItems) {
+            guestQuantities.merge(item.getProductId(), item.getQuantity(), Integer::max);
+        }
 
-    // Verify item belongs to user's cart
-    if (!cart.getUserEmail().equals(userEmail)) {
-        throw new RuntimeException("Cart item does not belong to this user");
+        // A line ends up with max(user quantity, guest quantity), so retrying a merge changes nothing
+        Cart cart = cartStore.findOrCreate(userEmail);
+        Map<Long, Integer> toAdd = new LinkedHashMap<>();
+        guestQuantities.forEach((productId, guestQuantity) -> {
+            int current = findItemByProduct(cart, productId).map(CartItem::getQuantity).orElse(0);
+            if (guestQuantity > current) {
+                toAdd.put(productId, guestQuantity - current);
+            }
+        });
+        System.out.println(">>> Merging guest cart for " + userEmail + ": " + toAdd.size() + " of " +
+                guestQuantities.size() + " lines change");
+        return CartResponse.from(applyBatch(cart, toAdd));
     }
 
-    // Check stock availability
-    ProductResponse product = getProductInfo(cartItem.getProductId());
-    if (product.getStockQuantity() < request.getQuantity()) {
-        throw new RuntimeException("Insufficient stock. Available: " + product.getStockQuantity());
-    }
+    /**
+     * Add quantities for several products with one catalog call, one inventory call and one batched write
+     */
+    private Cart applyBatch(Cart cart, Map<Long, Integer> toAdd) {
+        if (toAdd.isEmpty()) {
+            return cart;
+        }
+        Map<Long, CartItem> existingLines = new LinkedHashMap<>();
+        List<Long> newProductIds = new ArrayList<>();
+        toAdd.keySet().forEach(productId -> findItemByProduct(cart, productId).ifPresentOrElse(
+                line -> existingLines.put(productId, line), () -> newProductIds.add(productId)));
+
+        // Under EAGER everything is held and the reservation call checks stock itself;
+        // otherwise one validation call decides which products are scarce enough to hold now
+        Map<Long, Integer> reservedBefore = new LinkedHashMap<>();
+        existingLines.forEach((productId, line) -> reservedBefore.put(productId, reservedQuantity(line)));
+        List<Long> heldProductIds = new ArrayList<>(toAdd.keySet());
+        if (reservationPolicy != CartReservationPolicy.EAGER) {
+            heldProductIds.clear();
+            List<StockValidationResponse> validations = inventoryClient.validateStockBatch(toAdd.entrySet().stream()
+                    .map(e -> new BatchReservationRequest.ReservationItem(e.getKey(), e.getValue()))
+                    .toList());
+            for (StockValidationResponse validation : validations) {
+                if (!validation.getIsAvailable()) {
+                    throw new RuntimeException("Insufficient stock: " + validation.getMessage());
+                }
+                if (holdsOnAdd(validation)) {
+                    heldProductIds.add(validation.getProductId());
+                }
+            }
+        }
 
-    // Update the cart item
-    cartItem.setQuantity(request.getQuantity());
-    cartItem.setUnitPrice(product.getPrice());
-    cartItem.calculateTotalPrice();
-    cartItemRepository.save(cartItem);
-    System.out.println(">>> Updated cart item, new total price: " + cartItem.getTotalPrice());
+        // 1. One catalog call for every product that isn't in the cart yet
+        Map<Long, ProductResponse> products = new LinkedHashMap<>();
+        if (!newProductIds.isEmpty()) {
+            try {
+                for (ProductResponse product : productServiceClient.getProductsByIds(newProductIds)) {
+                    products.put(product.getId(), product);
+                }
+            } catch (Exception e) {
+                throw new RuntimeException("Product service unavailable: " + e.getMessage());
+            }
+            for (Long productId : newProductIds) {
+                if (!products.containsKey(productId)) {
+                    throw new RuntimeException("Product with ID " + productId + " not found");
+                }
+            }
+        }
 
-    // Refresh cart from database and recalculate total
-    cart = cartRepository.findById(cart.getId())
-            .orElseThrow(() -> new RuntimeException("Cart not found after update"));
+        // 2. Write every line in one go
+        Map<Long, Integer> previousQuantities = new LinkedHashMap<>();
+        List<CartItem> candidates = new ArrayList<>();
+        toAdd.forEach((productId, quantity) -> {
+            CartItem candidate = new CartItem();
+            candidate.setProductId(productId);
+            candidate.setQuantity(quantity);
+            candidate.setReservedQuantity(0);
+            CartItem existing = existingLines.get(productId);
+            if (existing != null) {
+                previousQuantities.put(productId, existing.getQuantity());
+                candidate.setProductName(existing.getProductName());
+                candidate.setUnitPriceMinor(existing.getUnitPriceMinor());
+            } else {
+                candidate.setProductName(products.get(productId).getName());
+                candidate.setUnitPrice(products.get(productId).getPrice());
+            }
+            candidate.calculateTotalPrice();
+            candidates.add(candidate);
+        });
+        Cart updatedCart = cartStore.addItems(cart, candidates);
+
+        // 3. Lines holding something already move their hold to the new quantity; lines without
+        //    a hold (or whose hold expired in inventory) get the full quantity in one
+        //    all-or-nothing reservation call
+        Map<Long, Integer> toMove = new LinkedHashMap<>();
+        Map<Long, Integer> toReserve = new LinkedHashMap<>();
+        Map<Long, Integer> reserved = new LinkedHashMap<>();
+        for (Long productId : heldProductIds) {
+            CartItem line = findItemByProduct(updatedCart, productId).orElseThrow();
+            int before = reservedBefore.getOrDefault(productId, 0);
+            if (line.getQuantity() > before) {
+                (before > 0 ? toMove : toReserve).put(productId, line.getQuantity());
+                reserved.put(line.getId(), line.getQuantity());
+            }
+        }
+        if (reserved.isEmpty()) {
+            return updatedCart;
+        }
 
-    cart.calculateTotalAmount();
-    Cart savedCart = cartRepository.save(cart);
-    System.out.println(">>> Final cart total: " + savedCart.getTotalAmount());
+        // Holds moved so far, with what they held before - put back if a later call fails
+        Map<Long, Integer> moved = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<Long, Integer> entry : toMove.entrySet()) {
+                if (moveHold(cart, entry.getKey(), entry.getValue())) {
+                    moved.put(entry.getKey(), reservedBefore.get(entry.getKey()));
+                } else {
+                    toReserve.put(entry.getKey(), entry.getValue());
+                }
+            }
+            if (!toReserve.isEmpty()) {
+                inventoryClient.reserveStockBatch(batchReservation(cart, toReserve, "Cart batch reservation"));
+            }
+        } catch (Exception e) {
+            moved.forEach((productId, previous) -> {
+                try {
+                    moveHold(cart, productId, previous);
+                } catch (RuntimeException restoreError) {
+                    System.err.println(">>> Failed to restore the hold on product " + productId +
+                            " for cart " + cart.getId() + ": " + restoreError.getMessage());
+                }
+            });
+            // Undo the lines (JPA rolls back anyway; the in-memory store needs it)
+            for (CartItem candidate : candidates) {
+                Integer previous = previousQuantities.get(candidate.getProductId());
+                if (previous == null) {
+                    cartStore.removeItem(updatedCart, candidate.getId());
+                } else {
+                    CartItem line = findItemByProduct(updatedCart, candidate.getProductId()).orElseThrow();
+                    cartStore.updateItem(updatedCart, line.getId(), previous);
+                }
+            }
+            throw new RuntimeException("Failed to reserve stock: " + e.getMessage());
+        }
 
-    return savedCart;
-}
+        return cartStore.markReserved(updatedCart, reserved);
+    }
 
     @Override
     @Transactional
-    public Cart removeFromCart(String userEmail, Long cartItemId) {
-        CartItem cartItem = cartItemRepository.findById(cartItemId)
+    public CartResponse updateCartItem(String userEmail, Long cartItemId, UpdateCartItemRequest request) {
+        System.out.println(">>> Updating cart item ID: " + cartItemId + " for user: " + userEmail);
+
+        // Validate input
+        if (request.getQuantity() == null || request.getQuantity() <= 0) {
+            throw new RuntimeException("Quantity must be greater than 0");
+        }
+
+        // Only the user's own cart is searched, so an item from another cart is simply not found
+        Cart cart = cartStore.findByUserEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("Cart item not found"));
+        CartItem cartItem = findItem(cart, cartItemId);
+        System.out.println(">>> Found cart ID: " + cart.getId() + " for item: " + cartItemId);
+
+        // The line's price is kept current by CartRepricingService, so only stock is checked here.
+        // Keep the line's hold in step with its quantity: move an existing reservation (which
+        // fails if the extra units aren't available), or validate and hold if the line should be.
+        // A hold that expired in inventory counts as none.
+        boolean wasHeld = reservedQuantity(cartItem) > 0;
+        boolean hold = wasHeld && moveHold(cart, cartItem.getProductId(), request.getQuantity());
+        if (!hold) {
+            StockValidationResponse validation = inventoryClient.validateStock(
+                    cartItem.getProductId(), request.getQuantity());
+            if (!validation.getIsAvailable()) {
+                throw new RuntimeException("Insufficient stock: " + validation.getMessage());
+            }
+            hold = holdsOnAdd(validation);
+            if (hold) {
+                inventoryClient.reserveStockBatch(batchReservation(cart,
+                        Map.of(cartItem.getProductId(), request.getQuantity()), "Cart item reservation"));
+            }
+        }
+
+        // Update the cart item - the total moves by this line's difference only
+        Cart savedCart = cartStore.updateItem(cart, cartItemId, request.getQuantity());
+        if (hold || wasHeld) {
+            savedCart = cartStore.markReserved(savedCart, Map.of(cartItemId, hold ? request.getQuantity() : 0));
+        }
+        System.out.println(">>> Updated cart item, new total price: " + findItem(savedCart, cartItemId).getTotalPrice());
+        System.out.println(">>> Final cart total: " + savedCart.getTotalAmount());
 
-        Cart cart = cartItem.getCart();
+        return CartResponse.from(savedCart);
+    }
+
+    @Override
+    @Transactional
+    public CartResponse removeFromCart(String userEmail, Long cartItemId) {
+        Cart cart = cartStore.findByUserEmail(userEmail)
+                .orElseThrow(() -> new RuntimeException("Cart item not found"));
+        CartItem cartItem = findItem(cart, cartItemId);
         String cartOrderId = "CART-" + cart.getId();
 
-        // Release stock reservation
-        inventoryClient.releaseReservation(cartOrderId,
-                cartItem.getProductId(), userEmail);
+        // Release stock reservation, if the line holds any
+        if (reservedQuantity(cartItem) > 0) {
+            inventoryClient.releaseReservation(cartOrderId,
+                    cartItem.getProductId(), userEmail);
+        }
 
         // Remove cart item
-        cartItemRepository.delete(cartItem);
-
-        // Refresh cart
-        cart = cartRepository.findByUserEmailWithItems(userEmail)
-                .orElseThrow(() -> new RuntimeException("Cart not found after update"));
-        cart.calculateTotalAmount();
-        return cartRepository.save(cart);
+        return CartResponse.from(cartStore.removeItem(cart, cartItemId));
     }
 
     @Override
     @Transactional
     public void clearCart(String userEmail) {
-        Optional<Cart> cartOpt = cartRepository.findByUserEmail(userEmail);
+        Optional<Cart> cartOpt = cartStore.findByUserEmail(userEmail);
         if (cartOpt.isPresent()) {
             Cart cart = cartOpt.get();
             String cartOrderId = "CART-" + cart.getId();
 
-            // Release all reservations
+            // Release all reservations (lines that were only validated hold nothing)
             for (CartItem item : cart.getItems()) {
-                inventoryClient.releaseReservation(cartOrderId,
-                        item.getProductId(), userEmail);
+                if (reservedQuantity(item) > 0) {
+                    inventoryClient.releaseReservation(cartOrderId,
+                            item.getProductId(), userEmail);
+                }
             }
 
             // Clear cart items
-            cartItemRepository.deleteAll(cart.getItems());
-            cart.getItems().clear();
-            cart.calculateTotalAmount();
-            cartRepository.save(cart);
+            cartStore.clear(cart);
         }
     }
 
-    /**
-     * Find existing cart or create new one (atomic operation)
-     */
+    @Override
     @Transactional
-    private Cart findOrCreateCart(String userEmail) {
-        // Try to find existing cart first
-        Optional<Cart> existingCart = cartRepository.findByUserEmail(userEmail);
-        if (existingCart.isPresent()) {
-            return existingCart.get();
+    public CartResponse beginCheckout(String userEmail) {
+        Cart cart = cartStore.findByUserEmail(userEmail)
+                .orElseThrow(() -> new RuntimeException("Cart not found"));
+        if (cart.getItems().isEmpty()) {
+            throw new RuntimeException("Cart is empty");
         }
 
-        // Double-check to prevent race conditions
-        if (cartRepository.existsByUserEmail(userEmail)) {
-            return cartRepository.findByUserEmail(userEmail)
-                    .orElseThrow(() -> new RuntimeException("Cart lookup failed"));
+        if (reservationPolicy == CartReservationPolicy.NONE) {
+            // Nothing is held for carts - just make sure the order can still be placed
+            List<BatchReservationRequest.ReservationItem> items = cart.getItems().stream()
+                    .map(item -> new BatchReservationRequest.ReservationItem(item.getProductId(), item.getQuantity()))
+                    .toList();
+            List<Long> unavailable = inventoryClient.validateStockBatch(items).stream()
+                    .filter(validation -> !validation.getIsAvailable())
+                    .map(StockValidationResponse::getProductId)
+                    .toList();
+            if (!unavailable.isEmpty()) {
+                throw new RuntimeException("Insufficient stock for products: " + unavailable);
+            }
+            return CartResponse.from(cart);
         }
 
-        // Create new cart
-        Cart newCart = new Cart();
-        newCart.setUserEmail(userEmail);
+        // Hold every line that isn't fully reserved yet, all or nothing
+        Map<Long, Integer> shortfall = new LinkedHashMap<>();
+        Map<Long, Integer> reserved = new LinkedHashMap<>();
+        for (CartItem item : cart.getItems()) {
+            int missing = item.getQuantity() - reservedQuantity(item);
+            if (missing > 0) {
+                shortfall.put(item.getProductId(), missing);
+                reserved.put(item.getId(), item.getQuantity());
+            }
+        }
+        if (shortfall.isEmpty()) {
+            return CartResponse.from(cart);
+        }
 
+        System.out.println(">>> Checkout for " + userEmail + ": reserving " + shortfall.size() + " of " +
+                cart.getItems().size() + " lines");
         try {
-            return cartRepository.save(newCart);
+            inventoryClient.reserveStockBatch(batchReservation(cart, shortfall, "Checkout reservation"));
         } catch (Exception e) {
-            // Handle unique constraint violation - someone else created cart
-            System.err.println("Cart creation failed (likely race condition): " + e.getMessage());
-            return cartRepository.findByUserEmail(userEmail)
-                    .orElseThrow(() -> new RuntimeException("Failed to create or find cart"));
+            throw new RuntimeException("Failed to reserve stock: " + e.getMessage());
         }
+        return CartResponse.from(cartStore.markReserved(cart, reserved));
+    }
+
+    @Override
+    @Transactional
+    public Map<String, Object> verifyCartTotal(String userEmail) {
+        Cart cart = cartStore.findByUserEmail(userEmail)
+                .orElseThrow(() -> new RuntimeException("Cart not found"));
+
+        long storedTotal = cart.getTotalAmountMinor();
+        long computedTotal = cart.computeTotalFromItems();
+        boolean consistent = storedTotal == computedTotal;
+
+        if (!consistent) {
+            System.err.println(">>> Cart " + cart.getId() + " total drifted: stored " + storedTotal +
+                    ", computed " + computedTotal + " (minor units). Repairing.");
+            cartStore.repairTotal(cart, computedTotal);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("cartId", cart.getId());
+        report.put("storedTotal", MinorUnits.toDecimal(storedTotal));
+        report.put("computedTotal", MinorUnits.toDecimal(computedTotal));
+        report.put("consistent", consistent);
+        report.put("repaired", !consistent);
+        return report;
     }
 
     /**
-     * Clean up duplicate carts - keep the one with most items or latest
+     * Whether a product is reserved as soon as it is added, rather than at checkout
      */
-    @Transactional
-    private Cart cleanupDuplicateCarts(List<Cart> carts, String userEmail) {
-        // Sort by: 1) number of items (desc), 2) created date (desc)
-        Cart bestCart = carts.stream()
-                .max(Comparator
-                        .comparing((Cart c) -> c.getItems().size())
-                        .thenComparing(Cart::getCreatedAt))
-                .orElse(carts.get(0));
-
-        // Delete other carts
-        carts.stream()
-                .filter(cart -> !cart.getId().equals(bestCart.getId()))
-                .forEach(cart -> {
-                    System.err.println("Deleting duplicate cart ID: " + cart.getId() + " for user: " + userEmail);
-                    cartItemRepository.deleteAll(cart.getItems());
-                    cartRepository.delete(cart);
-                });
-
-        return bestCart;
+    private boolean holdsOnAdd(StockValidationResponse validation) {
+        if (reservationPolicy == CartReservationPolicy.EAGER) {
+            return true;
+        }
+        return scarceThreshold > 0 && validation.getAvailableQuantity() != null
+                && validation.getAvailableQuantity() <= scarceThreshold;
+    }
+
+    /**
+     * Set the cart's hold on a product to exactly this quantity.
+     * Cart holds expire in inventory after 60 minutes while the line still records them,
+     * so a missing reservation is not an error: it means nothing is held any more.
+     * @return false if the cart had no active reservation for the product
+     */
+    private boolean moveHold(Cart cart, Long productId, int quantity) {
+        try {
+            inventoryClient.adjustReservationQuantity("CART-" + cart.getId(), productId,
+                    Map.of("quantity", quantity), cart.getUserEmail());
+            return true;
+        } catch (RuntimeException e) {
+            if (e.getMessage() == null || !e.getMessage().contains("No active reservation")) {
+                throw e;
+            }
+            System.out.println(">>> Hold on product " + productId + " for cart " + cart.getId() +
+                    " expired in inventory - reserving again");
+            return false;
+        }
+    }
+
+    private static int reservedQuantity(CartItem item) {
+        // Lines from before holds were tracked were reserved in full
+        return item.getReservedQuantity() != null ? item.getReservedQuantity() : item.getQuantity();
+    }
+
+    private BatchReservationRequest batchReservation(Cart cart, Map<Long, Integer> quantities, String notes) {
+        BatchReservationRequest reservationRequest = new BatchReservationRequest();
+        reservationRequest.setOrderId("CART-" + cart.getId());
+        reservationRequest.setUserEmail(cart.getUserEmail());
+        reservationRequest.setExpirationMinutes(60); // Longer for cart
+        reservationRequest.setNotes(notes);
+        reservationRequest.setItems(quantities.entrySet().stream()
+                .map(e -> new BatchReservationRequest.ReservationItem(e.getKey(), e.getValue()))
+                .toList());
+        return reservationRequest;
+    }
+
+    private CartItem findItem(Cart cart, Long cartItemId) {
+        return cart.getItems().stream()
+                .filter(item -> item.getId().equals(cartItemId))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Cart item not found"));
+    }
+
+    private Optional<CartItem> findItemByProduct(Cart cart, Long productId) {
+        return cart.getItems().stream()
+                .filter(item -> item.getProductId().equals(productId))
+                .findFirst();
     }
 
     /**
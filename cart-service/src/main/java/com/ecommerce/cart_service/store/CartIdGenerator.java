@@ -0,0 +1,82 @@
+package com.ecommerce.cart_service.store;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Time-ordered, node-unique IDs (Snowflake-style) for carts and cart items.
+ *
+ * IDs have to be known before anything reaches the database so the in-memory
+ * store can hand out item IDs immediately and write them behind later.
+ * Layout (53 bits, safe as JavaScript numbers): 41 bits of milliseconds since
+ * 2024-01-01, 5 bits of node ID (cart.id.node-id, required and unique per instance),
+ * 7 bits of per-millisecond sequence.
+ */
+@Component
+public class CartIdGenerator {
+
+    private static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final int NODE_BITS = 5;
+    private static final int SEQUENCE_BITS = 7;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long MAX_BACKWARDS_DRIFT_MS = 5000;
+
+    @Value("${cart.id.node-id:-1}")
+    private long configuredNodeId;
+
+    private long nodeId;
+    private long lastTimestamp = -1L;
+    private long sequence = 0L;
+
+    @PostConstruct
+    public void init() {
+        // No default: replicas with the same node ID would mint the same IDs in the same millisecond
+        if (configuredNodeId < 0 || configuredNodeId > MAX_NODE_ID) {
+            throw new IllegalStateException("cart.id.node-id must be set to a value between 0 and " + MAX_NODE_ID +
+                    ", unique for every running instance");
+        }
+        nodeId = configuredNodeId;
+        System.out.println(">>> Cart ID generator using node ID " + nodeId);
+    }
+
+    public synchronized long nextId() {
+        long timestamp = System.currentTimeMillis();
+
+        if (timestamp < lastTimestamp) {
+            long drift = lastTimestamp - timestamp;
+            if (drift > MAX_BACKWARDS_DRIFT_MS) {
+                throw new RuntimeException("Clock moved backwards by " + drift + "ms, refusing to generate IDs");
+            }
+            timestamp = lastTimestamp;
+        }
+
+        if (timestamp == lastTimestamp) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                timestamp = System.currentTimeMillis();
+                if (timestamp < lastTimestamp) {
+                    // Borrowing time after the clock moved back - don't spin for seconds holding the lock
+                    throw new RuntimeException("Clock is " + (lastTimestamp - timestamp) +
+                            "ms behind the last cart ID and this millisecond's IDs are used up, try again");
+                }
+                // Only the rest of the current millisecond
+                while (timestamp <= lastTimestamp) {
+                    Thread.onSpinWait();
+                    timestamp = System.currentTimeMillis();
+                }
+            }
+        } else {
+            sequence = 0L;
+        }
+
+        lastTimestamp = timestamp;
+        return ((timestamp - EPOCH) << (NODE_BITS + SEQUENCE_BITS))
+                | (nodeId << SEQUENCE_BITS)
+                | sequence;
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.ecommerce.cart_service.store;
+
+import com.ecommerce.cart_service.dto.ProductResponse;
+import com.ecommerce.cart_service.model.Cart;
+import com.ecommerce.cart_service.model.CartItem;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Storage for carts, one aggregate (cart + items) per user email.
+ *
+ * Implementations:
+ * - JpaCartStore: carts/cart_items tables, the default
+ * - InMemoryCartStore: cart.store.type=memory, whole cart kept as one document
+ *   in memory and written behind to Postgres
+ *
+ * Every method returns the cart as it is after the operation, with items loaded,
+ * so callers never need to reload it. Totals are maintained incrementally: each
+ * operation applies only the delta of the line it changed.
+ */
+public interface CartStore {
+
+    /**
+     * Get the user's cart with its items
+     */
+    Optional<Cart> findByUserEmail(String userEmail);
+
+    /**
+     * Get the user's cart, creating an empty one if there is none
+     */
+    Cart findOrCreate(String userEmail);
+
+    /**
+     * Add item.quantity of item.productId to the cart in one atomic step: creates the line
+     * (item gets an ID assigned) or increases the quantity of the existing line for that product.
+     * The line was created by this call if its ID in the returned cart equals item.getId().
+     */
+    Cart addItem(Cart cart, CartItem item);
+
+    /**
+     * addItem for several products at once, written together (batched inserts, one total update).
+     * Items must have distinct product IDs.
+     */
+    Cart addItems(Cart cart, List<CartItem> items);
+
+    /**
+     * Set the quantity of an existing line at its current price; the cart total moves by the line's difference only
+     */
+    Cart updateItem(Cart cart, Long cartItemId, int quantity);
+
+    /**
+     * Remove one line from the cart
+     */
+    Cart removeItem(Cart cart, Long cartItemId);
+
+    /**
+     * Remove every line from the cart (the cart itself is kept)
+     */
+    Cart clear(Cart cart);
+
+    /**
+     * Record how much of each line is held in inventory (cart item ID -> reserved quantity)
+     */
+    Cart markReserved(Cart cart, Map<Long, Integer> reservedByItemId);
+
+    /**
+     * Bring every cart line of these products to the given name and price (from the catalog's
+     * change feed), moving each affected cart's total and version.
+     * @return number of carts changed
+     */
+    int repriceProducts(Collection<ProductResponse> products);
+
+    /**
+     * Carts not changed since the cutoff, oldest first, locked until the current
+     * transaction ends (carts being changed right now are skipped)
+     */
+    List<Cart> findIdleForUpdate(LocalDateTime cutoff, int limit);
+
+    /**
+     * Delete carts with all their lines
+     */
+    void deleteCarts(List<Cart> carts);
+
+    /**
+     * Overwrite the stored total (used by the consistency check after a full recomputation)
+     */
+    Cart repairTotal(Cart cart, long totalMinor);
+}
@@ -0,0 +1,133 @@
+package com.ecommerce.cart_service.store;
+
+import com.ecommerce.cart_service.repository.CartRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Last known cart version per user, so GET /api/v1/cart can answer If-None-Match
+ * with 304 without loading the cart.
+ *
+ * - Stores record the new version after their transaction commits (a rolled back
+ *   change never shows up here); reads record what they loaded
+ * - Versions only move forward, so a slow read can't overwrite a newer change
+ * - The map is local to this instance and can miss a change made on another one or a
+ *   cart the sweeper deleted, so a known version is confirmed with a primary key read
+ *   of carts.version before it is served; a mismatch drops the entry
+ * - Entries expire after cart.etag.ttl-seconds
+ */
+@Component
+public class CartVersionTracker {
+
+    @Value("${cart.etag.ttl-seconds:15}")
+    private long ttlSeconds;
+
+    @Value("${cart.etag.max-entries:100000}")
+    private int maxEntries;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    private final Map<String, KnownVersion> versions = new ConcurrentHashMap<>();
+
+    public static String eTag(Long cartId, long version) {
+        return "\"" + cartId + "-" + version + "\"";
+    }
+
+    /**
+     * True if the If-None-Match header value lists the given ETag (weak or strong)
+     */
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || eTag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(eTag) || tag.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * ETag of the user's cart as last seen by this instance and still current in the database,
+     * or null if unknown, expired or outdated
+     */
+    public String currentETag(String userEmail) {
+        KnownVersion known = versions.get(userEmail);
+        if (known == null || known.expiresAt < System.currentTimeMillis()) {
+            return null;
+        }
+        // Changed on another instance, or deleted - the caller loads the cart instead
+        Long stored = cartRepository.findVersionById(known.cartId).orElse(null);
+        if (stored == null || stored != known.version) {
+            versions.remove(userEmail, known);
+            return null;
+        }
+        return eTag(known.cartId, known.version);
+    }
+
+    public void record(String userEmail, Long cartId, long version) {
+        long expiresAt = System.currentTimeMillis() + ttlSeconds * 1000;
+        versions.merge(userEmail, new KnownVersion(cartId, version, expiresAt), (current, seen) ->
+                !current.cartId.equals(seen.cartId) || seen.version >= current.version
+                        ? seen
+                        : new KnownVersion(current.cartId, current.version, expiresAt));
+        if (versions.size() > maxEntries) {
+            purgeExpired();
+        }
+    }
+
+    /**
+     * record() once the current transaction commits, or right away outside a transaction
+     */
+    public void recordAfterCommit(String userEmail, Long cartId, long version) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(userEmail, cartId, version);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(userEmail, cartId, version);
+            }
+        });
+    }
+
+    public void invalidate(String userEmail) {
+        versions.remove(userEmail);
+    }
+
+    @Scheduled(fixedDelayString = "${cart.etag.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        versions.values().removeIf(known -> known.expiresAt < now);
+        if (versions.size() > maxEntries) {
+            // Still too many live entries - forgetting them only costs a database read
+            versions.clear();
+        }
+    }
+
+    private static class KnownVersion {
+        private final Long cartId;
+        private final long version;
+        private final long expiresAt;
+
+        KnownVersion(Long cartId, long version, long expiresAt) {
+            this.cartId = cartId;
+            this.version = version;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
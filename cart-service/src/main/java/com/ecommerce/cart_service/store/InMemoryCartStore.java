@@ -0,0 +1,343 @@
+package com.ecommerce.cart_service.store;
+
+import com.ecommerce.cart_service.dto.ProductResponse;
+import com.ecommerce.cart_service.model.Cart;
+import com.ecommerce.cart_service.model.CartItem;
+import com.ecommerce.cart_service.model.MinorUnits;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Key-value cart store: each cart is one JSON document keyed by user email,
+ * the same shape it would have in Redis. Enabled with cart.store.type=memory.
+ *
+ * - Reads and mutations are served from memory; a cart is loaded from Postgres
+ *   once, on first access
+ * - Mutations are atomic per user (ConcurrentHashMap.compute on the document)
+ * - Changed carts are written behind to Postgres every cart.store.flush-interval-ms,
+ *   and once more on shutdown. Carts changed within the last interval can be lost
+ *   if the process dies, and the documents are local to this instance - run one
+ *   instance or route users stickily
+ * - Clean carts idle for cart.store.idle-eviction-minutes are dropped from memory
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "cart.store.type", havingValue = "memory")
+public class InMemoryCartStore implements CartStore {
+
+    @Autowired
+    private JpaCartStore jpaCartStore;
+
+    @Autowired
+    private CartIdGenerator cartIdGenerator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CartVersionTracker cartVersionTracker;
+
+    @Value("${cart.store.idle-eviction-minutes:30}")
+    private long idleEvictionMinutes;
+
+    private final Map<String, String> documents = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastAccess = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    // Item IDs removed since the last flush, so the rows can be deleted
+    private final Map<String, Set<Long>> removedItems = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<Cart> findByUserEmail(String userEmail) {
+        String document = documents.computeIfAbsent(userEmail,
+                email -> jpaCartStore.findByUserEmail(email).map(this::write).orElse(null));
+        touch(userEmail);
+        return Optional.ofNullable(document).map(this::read);
+    }
+
+    @Override
+    public Cart findOrCreate(String userEmail) {
+        String document = documents.computeIfAbsent(userEmail, email -> {
+            Optional<Cart> stored = jpaCartStore.findByUserEmail(email);
+            if (stored.isPresent()) {
+                return write(stored.get());
+            }
+            dirty.add(email);
+            return write(JpaCartStore.newCart(cartIdGenerator.nextId(), email));
+        });
+        touch(userEmail);
+        return read(document);
+    }
+
+    @Override
+    public Cart addItem(Cart cart, CartItem item) {
+        if (item.getId() == null) {
+            item.setId(cartIdGenerator.nextId());
+        }
+        return update(cart.getUserEmail(), current -> {
+            Optional<CartItem> existing = current.getItems().stream()
+                    .filter(line -> line.getProductId().equals(item.getProductId()))
+                    .findFirst();
+            if (existing.isPresent()) {
+                CartItem line = existing.get();
+                line.setQuantity(line.getQuantity() + item.getQuantity());
+                line.calculateTotalPrice();
+                current.applyTotalDelta(line.getUnitPriceMinor() * item.getQuantity());
+            } else {
+                item.setCart(current);
+                item.calculateTotalPrice();
+                current.getItems().add(item);
+                current.applyTotalDelta(item.getTotalPriceMinor());
+            }
+        });
+    }
+
+    @Override
+    public Cart addItems(Cart cart, List<CartItem> items) {
+        for (CartItem item : items) {
+            if (item.getId() == null) {
+                item.setId(cartIdGenerator.nextId());
+            }
+        }
+        return update(cart.getUserEmail(), current -> {
+            for (CartItem item : items) {
+                Optional<CartItem> existing = current.getItems().stream()
+                        .filter(line -> line.getProductId().equals(item.getProductId()))
+                        .findFirst();
+                if (existing.isPresent()) {
+                    CartItem line = existing.get();
+                    line.setQuantity(line.getQuantity() + item.getQuantity());
+                    line.calculateTotalPrice();
+                    current.applyTotalDelta(line.getUnitPriceMinor() * item.getQuantity());
+                } else {
+                    item.setCart(current);
+                    item.calculateTotalPrice();
+                    current.getItems().add(item);
+                    current.applyTotalDelta(item.getTotalPriceMinor());
+                }
+            }
+        });
+    }
+
+    @Override
+    public Cart updateItem(Cart cart, Long cartItemId, int quantity) {
+        return update(cart.getUserEmail(), current -> {
+            CartItem line = current.getItems().stream()
+                    .filter(item -> item.getId().equals(cartItemId))
+                    .findFirst()
+                    .orElseThrow(() -> new RuntimeException("Cart item not found"));
+            long oldTotal = line.getTotalPriceMinor();
+            line.setQuantity(quantity);
+            line.calculateTotalPrice();
+            current.applyTotalDelta(line.getTotalPriceMinor() - oldTotal);
+        });
+    }
+
+    @Override
+    public Cart removeItem(Cart cart, Long cartItemId) {
+        return update(cart.getUserEmail(), current -> {
+            for (CartItem item : current.getItems()) {
+                if (item.getId().equals(cartItemId)) {
+                    current.getItems().remove(item);
+                    current.applyTotalDelta(-item.getTotalPriceMinor());
+                    tombstone(current.getUserEmail(), List.of(cartItemId));
+                    break;
+                }
+            }
+        });
+    }
+
+    @Override
+    public Cart clear(Cart cart) {
+        return update(cart.getUserEmail(), current -> {
+            tombstone(current.getUserEmail(), current.getItems().stream().map(CartItem::getId).toList());
+            current.getItems().clear();
+            current.setTotalAmountMinor(0L);
+        });
+    }
+
+    @Override
+    public Cart markReserved(Cart cart, Map<Long, Integer> reservedByItemId) {
+        return update(cart.getUserEmail(), current -> current.getItems().stream()
+                .filter(item -> reservedByItemId.containsKey(item.getId()))
+                .forEach(item -> item.setReservedQuantity(reservedByItemId.get(item.getId()))));
+    }
+
+    @Override
+    public int repriceProducts(Collection<ProductResponse> products) {
+        // Rows in Postgres first, then the documents in memory - a dirty document
+        // would otherwise write the old prices back on its next flush
+        int repriced = jpaCartStore.repriceProducts(products);
+
+        Map<Long, ProductResponse> byProduct = new HashMap<>();
+        products.forEach(product -> byProduct.put(product.getId(), product));
+        for (String userEmail : new ArrayList<>(documents.keySet())) {
+            String document = documents.get(userEmail);
+            if (document == null || read(document).getItems().stream().noneMatch(item -> isStale(item, byProduct))) {
+                continue;
+            }
+            update(userEmail, current -> current.getItems().stream()
+                    .filter(item -> isStale(item, byProduct))
+                    .forEach(item -> {
+                        ProductResponse product = byProduct.get(item.getProductId());
+                        long oldTotal = item.getTotalPriceMinor();
+                        if (product.getName() != null) {
+                            item.setProductName(product.getName());
+                        }
+                        item.setUnitPrice(product.getPrice());
+                        item.calculateTotalPrice();
+                        current.applyTotalDelta(item.getTotalPriceMinor() - oldTotal);
+                    }));
+            repriced++;
+        }
+        return repriced;
+    }
+
+    @Override
+    public List<Cart> findIdleForUpdate(LocalDateTime cutoff, int limit) {
+        // Postgres lags memory by at most one flush; skip carts that are still in use here
+        long cutoffMillis = cutoff.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return jpaCartStore.findIdleForUpdate(cutoff, limit).stream()
+                .filter(cart -> !dirty.contains(cart.getUserEmail())
+                        && lastAccess.getOrDefault(cart.getUserEmail(), 0L) < cutoffMillis)
+                .toList();
+    }
+
+    @Override
+    public void deleteCarts(List<Cart> carts) {
+        for (Cart cart : carts) {
+            documents.remove(cart.getUserEmail());
+            lastAccess.remove(cart.getUserEmail());
+            removedItems.remove(cart.getUserEmail());
+        }
+        jpaCartStore.deleteCarts(carts);
+    }
+
+    @Override
+    public Cart repairTotal(Cart cart, long totalMinor) {
+        return update(cart.getUserEmail(), current -> current.setTotalAmountMinor(totalMinor));
+    }
+
+    /**
+     * Write changed carts to Postgres
+     */
+    @Scheduled(fixedDelayString = "${cart.store.flush-interval-ms:1000}")
+    public void flush() {
+        int flushed = 0;
+        for (String userEmail : new ArrayList<>(dirty)) {
+            // Clear the flag first - a change made while we write marks it dirty again
+            dirty.remove(userEmail);
+            Set<Long> removed = removedItems.remove(userEmail);
+            List<Long> removedIds = removed != null ? new ArrayList<>(removed) : List.of();
+            String document = documents.get(userEmail);
+            if (document == null) {
+                continue;
+            }
+
+            try {
+                jpaCartStore.writeSnapshot(read(document), removedIds);
+                flushed++;
+            } catch (Exception e) {
+                System.err.println(">>> Cart write-behind failed for " + userEmail + ", will retry: " + e.getMessage());
+                tombstone(userEmail, removedIds);
+                dirty.add(userEmail);
+            }
+        }
+        if (flushed > 0) {
+            System.out.println(">>> Cart store flushed " + flushed + " carts");
+        }
+
+        evictIdle();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        System.out.println(">>> Flushing " + dirty.size() + " carts before shutdown");
+        flush();
+    }
+
+    private Cart update(String userEmail, Consumer<Cart> mutation) {
+        // Mutate the document atomically, loading (or creating) it if it isn't in memory
+        String document = documents.compute(userEmail, (email, current) -> {
+            Cart cart = current != null ? read(current) : jpaCartStore.findByUserEmail(email)
+                    .orElseGet(() -> JpaCartStore.newCart(cartIdGenerator.nextId(), email));
+            mutation.accept(cart);
+            cart.setVersion(cart.getVersion() + 1);
+            cart.setUpdatedAt(LocalDateTime.now());
+            return write(cart);
+        });
+        dirty.add(userEmail);
+        touch(userEmail);
+        Cart updated = read(document);
+        cartVersionTracker.recordAfterCommit(userEmail, updated.getId(), updated.getVersion());
+        return updated;
+    }
+
+    private static boolean isStale(CartItem item, Map<Long, ProductResponse> byProduct) {
+        ProductResponse product = byProduct.get(item.getProductId());
+        return product != null && (item.getUnitPriceMinor() != MinorUnits.fromDecimal(product.getPrice())
+                || (product.getName() != null && !product.getName().equals(item.getProductName())));
+    }
+
+    private void tombstone(String userEmail, List<Long> itemIds) {
+        if (!itemIds.isEmpty()) {
+            removedItems.computeIfAbsent(userEmail, email -> ConcurrentHashMap.newKeySet()).addAll(itemIds);
+        }
+    }
+
+    private void touch(String userEmail) {
+        lastAccess.put(userEmail, System.currentTimeMillis());
+    }
+
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleEvictionMinutes * 60_000;
+        Set<String> idle = new HashSet<>();
+        lastAccess.forEach((email, accessedAt) -> {
+            if (accessedAt < cutoff && !dirty.contains(email)) {
+                idle.add(email);
+            }
+        });
+        for (String email : idle) {
+            // Only drop it if nothing touched it in the meantime
+            documents.computeIfPresent(email, (key, document) -> dirty.contains(key) ? document : null);
+            lastAccess.remove(email);
+        }
+    }
+
+    private String write(Cart cart) {
+        try {
+            return objectMapper.writeValueAsString(cart);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize cart: " + e.getMessage());
+        }
+    }
+
+    private Cart read(String document) {
+        try {
+            Cart cart = objectMapper.readValue(document, Cart.class);
+            cart.getItems().forEach(item -> item.setCart(cart));
+            return cart;
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to read cart: " + e.getMessage());
+        }
+    }
+}
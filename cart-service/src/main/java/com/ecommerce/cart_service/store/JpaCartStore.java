@@ -0,0 +1,260 @@
+package com.ecommerce.cart_service.store;
+
+import com.ecommerce.cart_service.dto.ProductResponse;
+import com.ecommerce.cart_service.model.Cart;
+import com.ecommerce.cart_service.model.CartItem;
+import com.ecommerce.cart_service.repository.CartItemRepository;
+import com.ecommerce.cart_service.repository.CartRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * CartStore backed directly by the carts/cart_items tables.
+ *
+ * The cart is loaded once with its items (fetch join) and changed in place;
+ * Hibernate flushes only the touched line at commit, and the cart total is moved
+ * by that line's delta with a single UPDATE - nothing is re-summed.
+ * Every change bumps the cart's version (its ETag) once.
+ * Also used by InMemoryCartStore to load carts and write them behind.
+ */
+@Component
+public class JpaCartStore implements CartStore {
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private CartIdGenerator cartIdGenerator;
+
+    @Autowired
+    private CartVersionTracker cartVersionTracker;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Cart> findByUserEmail(String userEmail) {
+        return cartRepository.findByUserEmailWithItems(userEmail);
+    }
+
+    @Override
+    @Transactional
+    public Cart findOrCreate(String userEmail) {
+        Optional<Cart> existingCart = cartRepository.findByUserEmailWithItems(userEmail);
+        if (existingCart.isPresent()) {
+            return existingCart.get();
+        }
+
+        // ON CONFLICT DO NOTHING waits for a concurrent insert of the same user's cart,
+        // so whichever request wins, the select below sees exactly one cart
+        cartRepository.insertIfAbsent(cartIdGenerator.nextId(), userEmail);
+        return cartRepository.findByUserEmailWithItems(userEmail)
+                .orElseThrow(() -> new RuntimeException("Failed to create or find cart"));
+    }
+
+    @Override
+    @Transactional
+    public Cart addItem(Cart cart, CartItem item) {
+        if (item.getId() == null) {
+            item.setId(cartIdGenerator.nextId());
+        }
+        cartItemRepository.upsertQuantity(item.getId(), cart.getId(), item.getProductId(),
+                item.getProductName(), item.getQuantity(), item.getUnitPrice());
+
+        // Re-read only the affected line: ours, or a concurrent tab's line with our quantity added
+        CartItem line = cart.getItems().stream()
+                .filter(existing -> existing.getProductId().equals(item.getProductId()))
+                .findFirst()
+                .orElse(null);
+        if (line != null) {
+            entityManager.refresh(line);
+        } else {
+            line = cartItemRepository.findByCartIdAndProductId(cart.getId(), item.getProductId())
+                    .orElseThrow(() -> new RuntimeException("Cart item not found after update"));
+            cart.getItems().add(line);
+        }
+
+        // The upsert keeps an existing line's price, so the delta uses the line's price
+        applyDelta(cart, line.getUnitPriceMinor() * item.getQuantity());
+        return bumpVersion(cart);
+    }
+
+    @Override
+    @Transactional
+    public Cart addItems(Cart cart, List<CartItem> items) {
+        long delta = 0;
+        for (CartItem item : items) {
+            Optional<CartItem> existing = cart.getItems().stream()
+                    .filter(line -> line.getProductId().equals(item.getProductId()))
+                    .findFirst();
+            if (existing.isPresent()) {
+                CartItem line = existing.get();
+                line.setQuantity(line.getQuantity() + item.getQuantity());
+                line.calculateTotalPrice();
+                delta += line.getUnitPriceMinor() * item.getQuantity();
+            } else {
+                if (item.getId() == null) {
+                    item.setId(cartIdGenerator.nextId());
+                }
+                item.setCart(cart);
+                item.calculateTotalPrice();
+                cart.getItems().add(item);
+                // Assigned IDs, so these inserts go out as one JDBC batch at flush
+                entityManager.persist(item);
+                delta += item.getTotalPriceMinor();
+            }
+        }
+        applyDelta(cart, delta);
+        return bumpVersion(cart);
+    }
+
+    @Override
+    @Transactional
+    public Cart updateItem(Cart cart, Long cartItemId, int quantity) {
+        CartItem line = findItem(cart, cartItemId);
+        // Cart first, like repricing: the line's price can't change between the two statements,
+        // and the loaded (possibly since repriced) price is never written back
+        cartRepository.lockById(cart.getId());
+        applyDelta(cart, cartItemRepository.updateQuantity(cartItemId, quantity));
+        entityManager.refresh(line);
+        return bumpVersion(cart);
+    }
+
+    @Override
+    @Transactional
+    public Cart removeItem(Cart cart, Long cartItemId) {
+        CartItem line = findItem(cart, cartItemId);
+        // orphanRemoval deletes the row at flush
+        cart.getItems().remove(line);
+        applyDelta(cart, -line.getTotalPriceMinor());
+        return bumpVersion(cart);
+    }
+
+    @Override
+    @Transactional
+    public Cart clear(Cart cart) {
+        cart.getItems().clear();
+        return repairTotal(cart, 0L);
+    }
+
+    @Override
+    @Transactional
+    public Cart markReserved(Cart cart, Map<Long, Integer> reservedByItemId) {
+        // Lines are managed, so only the changed reserved_quantity values are written at flush
+        reservedByItemId.forEach((cartItemId, reserved) -> findItem(cart, cartItemId).setReservedQuantity(reserved));
+        return bumpVersion(cart);
+    }
+
+    @Override
+    @Transactional
+    public int repriceProducts(Collection<ProductResponse> products) {
+        Set<String> affectedUsers = new HashSet<>();
+        for (ProductResponse product : products) {
+            List<String> users = cartRepository.findUserEmailsWithStaleLines(
+                    product.getId(), product.getPrice(), product.getName());
+            if (users.isEmpty()) {
+                continue;
+            }
+            // Totals first - the delta is computed from the lines' old prices
+            cartRepository.applyRepricedTotals(product.getId(), product.getPrice(), product.getName());
+            cartItemRepository.repriceProduct(product.getId(), product.getPrice(), product.getName());
+            affectedUsers.addAll(users);
+        }
+
+        if (!affectedUsers.isEmpty()) {
+            // New versions for the ETag map, so pollers see the repriced carts
+            for (Cart cart : cartRepository.findByUserEmailIn(affectedUsers)) {
+                cartVersionTracker.recordAfterCommit(cart.getUserEmail(), cart.getId(), cart.getVersion());
+            }
+        }
+        return affectedUsers.size();
+    }
+
+    @Override
+    @Transactional
+    public List<Cart> findIdleForUpdate(LocalDateTime cutoff, int limit) {
+        return cartRepository.findIdleForUpdate(cutoff, limit);
+    }
+
+    @Override
+    @Transactional
+    public void deleteCarts(List<Cart> carts) {
+        if (carts.isEmpty()) {
+            return;
+        }
+        List<Long> cartIds = carts.stream().map(Cart::getId).toList();
+        cartItemRepository.deleteByCartIds(cartIds);
+        cartRepository.deleteAllByIdInBatch(cartIds);
+        carts.forEach(cart -> cartVersionTracker.invalidate(cart.getUserEmail()));
+    }
+
+    @Override
+    @Transactional
+    public Cart repairTotal(Cart cart, long totalMinor) {
+        cartRepository.setTotal(cart.getId(), totalMinor);
+        cart.setTotalAmountMinor(totalMinor);
+        return bumpVersion(cart);
+    }
+
+    /**
+     * Write a cart snapshot (typically from InMemoryCartStore) to the database.
+     * Items listed in removedItemIds are deleted first so a product that was removed
+     * and added again doesn't hit the (cart_id, product_id) unique constraint.
+     */
+    @Transactional
+    public void writeSnapshot(Cart snapshot, List<Long> removedItemIds) {
+        if (!removedItemIds.isEmpty()) {
+            cartItemRepository.deleteAllByIdInBatch(removedItemIds);
+        }
+        entityManager.merge(snapshot);
+        // total_amount and version aren't updatable through the entity
+        cartRepository.setTotal(snapshot.getId(), snapshot.getTotalAmountMinor());
+        cartRepository.raiseVersion(snapshot.getId(), snapshot.getVersion());
+    }
+
+    private void applyDelta(Cart cart, long deltaMinor) {
+        if (deltaMinor != 0) {
+            cartRepository.addToTotal(cart.getId(), deltaMinor);
+            cart.applyTotalDelta(deltaMinor);
+        }
+    }
+
+    private Cart bumpVersion(Cart cart) {
+        cart.setVersion(cartRepository.incrementVersion(cart.getId()));
+        cartVersionTracker.recordAfterCommit(cart.getUserEmail(), cart.getId(), cart.getVersion());
+        return cart;
+    }
+
+    private CartItem findItem(Cart cart, Long cartItemId) {
+        return cart.getItems().stream()
+                .filter(item -> item.getId().equals(cartItemId))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Cart item not found"));
+    }
+
+    static Cart newCart(Long id, String userEmail) {
+        Cart cart = new Cart();
+        cart.setId(id);
+        cart.setUserEmail(userEmail);
+        cart.setItems(new ArrayList<>());
+        cart.setCreatedAt(LocalDateTime.now());
+        cart.setUpdatedAt(LocalDateTime.now());
+        return cart;
+    }
+}
@@ -3,7 +3,7 @@ package com.ecommerce.cart_service;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "cart.id.node-id=0")
 class CartServiceApplicationTests {
 
 	@Test
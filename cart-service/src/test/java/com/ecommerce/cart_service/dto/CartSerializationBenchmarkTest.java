@@ -0,0 +1,114 @@
+package com.ecommerce.cart_service.dto;
+
+import com.ecommerce.cart_service.model.Cart;
+import com.ecommerce.cart_service.model.CartItem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Cost of rendering a cart: the Cart entity as the endpoints used to return it,
+ * versus mapping to CartResponse and serializing that.
+ * Prints latency and allocated bytes per response for several cart sizes.
+ *
+ * Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class CartSerializationBenchmarkTest {
+
+    private static final int[] CART_SIZES = {1, 10, 50, 200};
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 50_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void entityVersusDtoSerialization() throws Exception {
+        System.out.printf("%-6s %-8s %12s %14s %10s%n", "items", "payload", "ns/op", "bytes/op", "json bytes");
+        for (int size : CART_SIZES) {
+            Cart cart = cartWithItems(size);
+
+            // Same content either way
+            CartResponse response = CartResponse.from(cart);
+            assertEquals(size, response.getItems().size());
+            assertEquals(cart.getTotalAmount(), response.getTotalAmount());
+
+            Result entity = measure(size, () -> objectMapper.writeValueAsBytes(cart));
+            Result dto = measure(size, () -> objectMapper.writeValueAsBytes(CartResponse.from(cart)));
+            print(size, "entity", entity);
+            print(size, "dto", dto);
+        }
+    }
+
+    private Result measure(int size, Serialization serialization) throws Exception {
+        int iterations = Math.max(1, MEASURED_ITERATIONS / size);
+        int jsonBytes = 0;
+        for (int i = 0; i < Math.max(1, WARMUP_ITERATIONS / size); i++) {
+            jsonBytes = serialization.run().length;
+        }
+
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            serialization.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new Result(elapsed / iterations, allocated / iterations, jsonBytes);
+    }
+
+    private static void print(int size, String payload, Result result) {
+        System.out.printf("%-6d %-8s %12d %14d %10d%n",
+                size, payload, result.nanosPerOp, result.bytesPerOp, result.jsonBytes);
+    }
+
+    private static Cart cartWithItems(int size) {
+        Cart cart = new Cart();
+        cart.setId(1_000L);
+        cart.setUserEmail("benchmark@example.com");
+        cart.setItems(new ArrayList<>());
+        cart.setCreatedAt(LocalDateTime.now());
+        cart.setUpdatedAt(LocalDateTime.now());
+        for (int i = 0; i < size; i++) {
+            CartItem item = new CartItem();
+            item.setId(2_000L + i);
+            item.setCart(cart);
+            item.setProductId(100L + i);
+            item.setProductName("Product " + i);
+            item.setQuantity(1 + i % 5);
+            item.setReservedQuantity(item.getQuantity());
+            item.setUnitPrice(new BigDecimal("19.99"));
+            item.calculateTotalPrice();
+            cart.getItems().add(item);
+            cart.applyTotalDelta(item.getTotalPriceMinor());
+        }
+        return cart;
+    }
+
+    @FunctionalInterface
+    private interface Serialization {
+        byte[] run() throws Exception;
+    }
+
+    private static class Result {
+        private final long nanosPerOp;
+        private final long bytesPerOp;
+        private final int jsonBytes;
+
+        Result(long nanosPerOp, long bytesPerOp, int jsonBytes) {
+            this.nanosPerOp = nanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+            this.jsonBytes = jsonBytes;
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package com.ecommerce.cart_service.load;
+
+import com.ecommerce.cart_service.client.InventoryServiceClient;
+import com.ecommerce.cart_service.client.ProductServiceClient;
+import com.ecommerce.cart_service.dto.AddToCartRequest;
+import com.ecommerce.cart_service.dto.CartResponse;
+import com.ecommerce.cart_service.dto.UpdateCartItemRequest;
+import com.ecommerce.cart_service.service.CartReservationPolicy;
+import com.ecommerce.cart_service.service.CartService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.convention.TestBean;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load harness for CartServiceImpl: the real service, stores and repositories against an
+ * embedded Postgres, with inventory-service and product-catalog-service replaced by
+ * in-process stubs that answer after a configurable latency. No Eureka, no other services.
+ *
+ * Virtual users share carts (load.users-per-cart users per user email), so adds, updates
+ * and removes of the same cart race each other as they do with several open tabs.
+ * After a warm-up it prints throughput, latency percentiles and errors per operation, then
+ * checks every cart: its stored total matches its lines, and (under EAGER) the stub's holds
+ * match its line quantities - contention must cost latency, never consistency.
+ *
+ * Run with: mvn test -Pload-test
+ * Tunables (-D...): load.users (32), load.users-per-cart (4), load.duration-seconds (30),
+ * load.warmup-seconds (5), load.products (200), load.mix (add/update/remove weights, 50/30/20),
+ * load.stub-latency-ms (5), load.stub-jitter-ms (2), plus any cart.* property such as
+ * cart.reservation.policy or cart.store.type.
+ */
+@Tag("load")
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.discovery.enabled=false",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "cart.repricing.enabled=false",
+        "cart.abandoned.enabled=false",
+        "cart.id.node-id=0"
+})
+class CartLoadHarnessTest {
+
+    private static final int USERS = Integer.getInteger("load.users", 32);
+    private static final int USERS_PER_CART = Integer.getInteger("load.users-per-cart", 4);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.duration-seconds", 30);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup-seconds", 5);
+    private static final int PRODUCTS = Integer.getInteger("load.products", 200);
+    private static final int[] MIX = parseMix(System.getProperty("load.mix", "50/30/20"));
+
+    private static final StubLatency STUB_LATENCY = new StubLatency(
+            Long.getLong("load.stub-latency-ms", 5), Long.getLong("load.stub-jitter-ms", 2));
+    private static final StubInventoryServiceClient INVENTORY = new StubInventoryServiceClient(STUB_LATENCY);
+    private static final StubProductServiceClient CATALOG = new StubProductServiceClient(STUB_LATENCY);
+
+    private static EmbeddedPostgres postgres;
+
+    @TestBean(methodName = "stubInventoryClient")
+    private InventoryServiceClient inventoryClient;
+
+    @TestBean(methodName = "stubProductClient")
+    private ProductServiceClient productClient;
+
+    @Autowired
+    private CartService cartService;
+
+    @Value("${cart.reservation.policy:EAGER}")
+    private CartReservationPolicy reservationPolicy;
+
+    static InventoryServiceClient stubInventoryClient() {
+        return INVENTORY;
+    }
+
+    static ProductServiceClient stubProductClient() {
+        return CATALOG;
+    }
+
+    @DynamicPropertySource
+    static void embeddedDatabase(DynamicPropertyRegistry registry) {
+        try {
+            postgres = EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start embedded Postgres", e);
+        }
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> Math.max(10, USERS));
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    enum Operation { ADD, UPDATE, REMOVE }
+
+    @Test
+    void concurrentUsersPerCart() throws Exception {
+        int carts = Math.max(1, USERS / USERS_PER_CART);
+        System.out.printf(">>> Cart load: %d users on %d carts, %ds warm-up + %ds measured, stub latency %s ms%n",
+                USERS, carts, WARMUP_SECONDS, DURATION_SECONDS, System.getProperty("load.stub-latency-ms", "5"));
+
+        List<VirtualUser> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(new VirtualUser("load-user-" + (i % carts) + "@example.com"));
+        }
+
+        run(users, WARMUP_SECONDS);
+        users.forEach(VirtualUser::reset);
+        long inventoryCallsBefore = INVENTORY.calls.sum();
+        long catalogCallsBefore = CATALOG.calls.sum();
+
+        run(users, DURATION_SECONDS);
+
+        Map<Operation, OperationStats> totals = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            totals.put(operation, new OperationStats());
+        }
+        users.forEach(user -> user.stats.forEach((operation, stats) -> totals.get(operation).merge(stats)));
+
+        long totalOps = report(totals);
+        System.out.printf(">>> Remote calls per operation: inventory %.2f, catalog %.2f%n",
+                (INVENTORY.calls.sum() - inventoryCallsBefore) / (double) Math.max(1, totalOps),
+                (CATALOG.calls.sum() - catalogCallsBefore) / (double) Math.max(1, totalOps));
+
+        assertTrue(totalOps > 0, "no cart operation completed");
+
+        Set<String> userEmails = new LinkedHashSet<>();
+        users.forEach(user -> userEmails.add(user.userEmail));
+        for (String userEmail : userEmails) {
+            assertCartConsistent(userEmail);
+        }
+    }
+
+    private void assertCartConsistent(String userEmail) {
+        Map<String, Object> verification = cartService.verifyCartTotal(userEmail);
+        assertEquals(true, verification.get("consistent"), "stored total drifted for " + userEmail + ": " + verification);
+
+        // Carts only hold stock under EAGER until checkout (the stub never reports scarce stock)
+        CartResponse cart = cartService.getCartByUserEmail(userEmail);
+        Map<Long, Integer> expectedHolds = new HashMap<>();
+        if (reservationPolicy == CartReservationPolicy.EAGER) {
+            for (CartResponse.CartItemResponse item : cart.getItems()) {
+                expectedHolds.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+            }
+        }
+        assertEquals(expectedHolds, INVENTORY.holdsOf("CART-" + cart.getCartId()),
+                "inventory holds don't match the lines of cart " + cart.getCartId());
+    }
+
+    private void run(List<VirtualUser> users, int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService executor = Executors.newFixedThreadPool(users.size());
+        CountDownLatch done = new CountDownLatch(users.size());
+        for (VirtualUser user : users) {
+            executor.execute(() -> {
+                try {
+                    user.runUntil(deadline);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        executor.shutdown();
+    }
+
+    private long report(Map<Operation, OperationStats> totals) {
+        System.out.printf("%-8s %10s %10s %10s %10s %10s %10s %10s %10s%n",
+                "op", "count", "ops/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "conflicts", "errors");
+        long totalOps = 0;
+        for (Map.Entry<Operation, OperationStats> entry : totals.entrySet()) {
+            OperationStats stats = entry.getValue();
+            List<Long> latencies = stats.latencies;
+            Collections.sort(latencies);
+            System.out.printf("%-8s %10d %10.1f %10.2f %10.2f %10.2f %10.2f %10d %10d%n",
+                    entry.getKey(), latencies.size(), latencies.size() / (double) DURATION_SECONDS,
+                    percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 0.99),
+                    percentile(latencies, 1.0), stats.conflicts, stats.errors);
+            totalOps += latencies.size();
+        }
+        System.out.printf(">>> Total: %d operations, %.1f ops/s%n", totalOps, totalOps / (double) DURATION_SECONDS);
+        return totalOps;
+    }
+
+    private static double percentile(List<Long> sortedNanos, double percentile) {
+        if (sortedNanos.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.size()) - 1;
+        return sortedNanos.get(Math.max(0, index)) / 1_000_000.0;
+    }
+
+    private static int[] parseMix(String mix) {
+        String[] parts = mix.split("/");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("load.mix must be add/update/remove weights, e.g. 50/30/20");
+        }
+        return new int[]{Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2])};
+    }
+
+    /**
+     * One shopper: picks an operation by load.mix and works on the cart as it last saw it
+     */
+    private class VirtualUser {
+        private final String userEmail;
+        private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        private List<CartResponse.CartItemResponse> lastSeenItems = List.of();
+
+        VirtualUser(String userEmail) {
+            this.userEmail = userEmail;
+            reset();
+        }
+
+        void reset() {
+            for (Operation operation : Operation.values()) {
+                stats.put(operation, new OperationStats());
+            }
+        }
+
+        void runUntil(long deadline) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < deadline) {
+                Operation operation = pick(random);
+                long start = System.nanoTime();
+                try {
+                    CartResponse cart = execute(operation, random);
+                    stats.get(operation).latencies.add(System.nanoTime() - start);
+                    lastSeenItems = cart.getItems();
+                } catch (RuntimeException e) {
+                    // Another user of the same cart removed the line first - expected under contention
+                    if (e.getMessage() != null && e.getMessage().contains("not found")) {
+                        stats.get(operation).conflicts++;
+                    } else {
+                        stats.get(operation).errors++;
+                    }
+                    lastSeenItems = List.of();
+                }
+            }
+        }
+
+        private Operation pick(ThreadLocalRandom random) {
+            if (lastSeenItems.isEmpty()) {
+                return Operation.ADD;
+            }
+            int roll = random.nextInt(MIX[0] + MIX[1] + MIX[2]);
+            if (roll < MIX[0]) {
+                return Operation.ADD;
+            }
+            return roll < MIX[0] + MIX[1] ? Operation.UPDATE : Operation.REMOVE;
+        }
+
+        private CartResponse execute(Operation operation, ThreadLocalRandom random) {
+            switch (operation) {
+                case ADD:
+                    long productId = 1 + random.nextInt(PRODUCTS);
+                    return cartService.addToCart(userEmail, new AddToCartRequest(productId, 1 + random.nextInt(3)));
+                case UPDATE:
+                    Long itemToUpdate = lastSeenItems.get(random.nextInt(lastSeenItems.size())).getItemId();
+                    return cartService.updateCartItem(userEmail, itemToUpdate,
+                            new UpdateCartItemRequest(1 + random.nextInt(5)));
+                default:
+                    Long itemToRemove = lastSeenItems.get(random.nextInt(lastSeenItems.size())).getItemId();
+                    return cartService.removeFromCart(userEmail, itemToRemove);
+            }
+        }
+    }
+
+    private static class OperationStats {
+        private final List<Long> latencies = new ArrayList<>();
+        private long conflicts;
+        private long errors;
+
+        void merge(OperationStats other) {
+            latencies.addAll(other.latencies);
+            conflicts += other.conflicts;
+            errors += other.errors;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.ecommerce.cart_service.load;
+
+import com.ecommerce.cart_service.client.InventoryServiceClient;
+import com.ecommerce.cart_service.dto.BatchReservationRequest;
+import com.ecommerce.cart_service.dto.BulkReleaseRequest;
+import com.ecommerce.cart_service.dto.BulkReleaseResponse;
+import com.ecommerce.cart_service.dto.StockReservationRequest;
+import com.ecommerce.cart_service.dto.StockValidationResponse;
+import com.ecommerce.cart_service.model.StockReservation;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process inventory-service: unlimited stock, every call succeeds after the configured latency.
+ * Keeps the quantity held per reservation and product, like inventory's stock_reservations,
+ * so the harness can check holds against cart contents afterwards.
+ */
+class StubInventoryServiceClient implements InventoryServiceClient {
+
+    private static final int AVAILABLE = 1_000_000;
+
+    private final StubLatency latency;
+    final LongAdder calls = new LongAdder();
+    // "orderId/productId" -> quantity held
+    private final Map<String, Integer> holds = new ConcurrentHashMap<>();
+
+    StubInventoryServiceClient(StubLatency latency) {
+        this.latency = latency;
+    }
+
+    @Override
+    public StockReservation reserveStock(StockReservationRequest request) {
+        call();
+        holds.merge(key(request.getOrderId(), request.getProductId()), request.getQuantity(), Integer::sum);
+        return reservation(request.getOrderId(), request.getProductId(), request.getQuantity());
+    }
+
+    @Override
+    public List<StockReservation> reserveStockBatch(BatchReservationRequest request) {
+        call();
+        request.getItems().forEach(item ->
+                holds.merge(key(request.getOrderId(), item.getProductId()), item.getQuantity(), Integer::sum));
+        return request.getItems().stream()
+                .map(item -> reservation(request.getOrderId(), item.getProductId(), item.getQuantity()))
+                .toList();
+    }
+
+    @Override
+    public StockReservation confirmReservation(String orderId, Long productId, String userEmail) {
+        call();
+        return reservation(orderId, productId, 0);
+    }
+
+    @Override
+    public StockReservation releaseReservation(String orderId, Long productId, String userEmail) {
+        call();
+        holds.remove(key(orderId, productId));
+        return reservation(orderId, productId, 0);
+    }
+
+    @Override
+    public StockValidationResponse validateStock(Long productId, Integer quantity) {
+        call();
+        return available(productId, quantity);
+    }
+
+    @Override
+    public StockReservation adjustReservationQuantity(String orderId, Long productId,
+                                                      Map<String, Integer> quantityRequest, String username) {
+        call();
+        holds.put(key(orderId, productId), quantityRequest.get("quantity"));
+        return reservation(orderId, productId, quantityRequest.get("quantity"));
+    }
+
+    @Override
+    public BulkReleaseResponse releaseReservationsBatch(BulkReleaseRequest request) {
+        call();
+        for (String orderId : request.getOrderIds()) {
+            holds.keySet().removeIf(key -> key.startsWith(orderId + "/"));
+        }
+        return new BulkReleaseResponse(request.getOrderIds().size(), 0, 0);
+    }
+
+    @Override
+    public List<StockValidationResponse> validateStockBatch(List<BatchReservationRequest.ReservationItem> items) {
+        call();
+        return items.stream().map(item -> available(item.getProductId(), item.getQuantity())).toList();
+    }
+
+    /**
+     * @return Quantity held per product under the given reservation, without empty holds
+     */
+    Map<Long, Integer> holdsOf(String orderId) {
+        Map<Long, Integer> held = new HashMap<>();
+        holds.forEach((key, quantity) -> {
+            if (key.startsWith(orderId + "/") && quantity > 0) {
+                held.put(Long.valueOf(key.substring(orderId.length() + 1)), quantity);
+            }
+        });
+        return held;
+    }
+
+    private static String key(String orderId, Long productId) {
+        return orderId + "/" + productId;
+    }
+
+    private void call() {
+        calls.increment();
+        latency.pause();
+    }
+
+    private static StockValidationResponse available(Long productId, Integer quantity) {
+        return new StockValidationResponse(productId, true, AVAILABLE, quantity, "Stock available");
+    }
+
+    private static StockReservation reservation(String orderId, Long productId, Integer quantity) {
+        StockReservation reservation = new StockReservation();
+        reservation.setOrderId(orderId);
+        reservation.setProductId(productId);
+        reservation.setQuantity(quantity);
+        return reservation;
+    }
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.cart_service.load;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Simulated network latency of a remote call: base +/- jitter milliseconds
+ */
+class StubLatency {
+
+    private final long baseMillis;
+    private final long jitterMillis;
+
+    StubLatency(long baseMillis, long jitterMillis) {
+        this.baseMillis = baseMillis;
+        this.jitterMillis = jitterMillis;
+    }
+
+    void pause() {
+        long millis = baseMillis;
+        if (jitterMillis > 0) {
+            millis += ThreadLocalRandom.current().nextLong(-jitterMillis, jitterMillis + 1);
+        }
+        if (millis > 0) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+    }
+}
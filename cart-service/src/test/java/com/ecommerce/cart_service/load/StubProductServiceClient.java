@@ -0,0 +1,50 @@
+package com.ecommerce.cart_service.load;
+
+import com.ecommerce.cart_service.client.ProductServiceClient;
+import com.ecommerce.cart_service.dto.ProductChangeResponse;
+import com.ecommerce.cart_service.dto.ProductResponse;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process product-catalog-service: every product ID exists, with a price derived from the ID
+ */
+class StubProductServiceClient implements ProductServiceClient {
+
+    private final StubLatency latency;
+    final LongAdder calls = new LongAdder();
+
+    StubProductServiceClient(StubLatency latency) {
+        this.latency = latency;
+    }
+
+    @Override
+    public ProductResponse getProductById(Long productId) {
+        call();
+        return product(productId);
+    }
+
+    @Override
+    public List<ProductResponse> getProductsByIds(List<Long> productIds) {
+        call();
+        return productIds.stream().map(StubProductServiceClient::product).toList();
+    }
+
+    @Override
+    public List<ProductChangeResponse> getProductChanges(Long since, int limit) {
+        call();
+        return List.of();
+    }
+
+    private void call() {
+        calls.increment();
+        latency.pause();
+    }
+
+    static ProductResponse product(Long productId) {
+        return new ProductResponse(productId, "Product " + productId, "Load test product",
+                BigDecimal.valueOf(500 + productId % 100, 2), 1_000_000);
+    }
+}
@@ -1,9 +1,14 @@
 package com.ecommerce.order_service.client;
 
+import com.ecommerce.order_service.dto.ProductChangeResponse;
 import com.ecommerce.order_service.dto.ProductResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+import java.util.Map;
 
 /**
  * Feign client to communicate with Product Catalog Service
@@ -19,4 +24,25 @@ public interface ProductServiceClient {
      */
     @GetMapping("/api/v1/products/{id}")
     ProductResponse getProductById(@PathVariable("id") Long productId);
-}
\ No newline at end of file
+
+    /**
+     * Get details for many products in one call
+     * @param productIds The IDs of the products (unknown IDs are omitted from the result)
+     * @return ProductResponse for every product that exists
+     */
+    @GetMapping("/api/v1/products/batch")
+    List<ProductResponse> getProductsByIds(@RequestParam("ids") List<Long> productIds);
+
+    /**
+     * Product changes (create, name/price update, delete) after the given feed position, oldest first
+     */
+    @GetMapping("/api/v1/products/changes")
+    List<ProductChangeResponse> getProductChanges(@RequestParam("since") Long since,
+                                                  @RequestParam("limit") int limit);
+
+    /**
+     * Current position of the product change feed, as {"position": id}
+     */
+    @GetMapping("/api/v1/products/changes/head")
+    Map<String, Long> getProductChangesHead();
+}
@@ -1,6 +1,7 @@
 package com.ecommerce.order_service.controller;
 
 import com.ecommerce.order_service.dto.CreateOrderRequest;
+import com.ecommerce.order_service.dto.OrderSummaryPage;
 import com.ecommerce.order_service.model.Order;
 import com.ecommerce.order_service.model.OrderStatus;
 import com.ecommerce.order_service.service.OrderService;
@@ -65,6 +66,28 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    /**
+     * Get the authenticated user's order history as lightweight summaries
+     * @param userEmail User email from JWT
+     * @param cursor nextCursor from the previous page (omit for the first page)
+     * @param size Page size (max 100)
+     * @return Page of order summaries
+     */
+    @GetMapping("/my-orders/summary")
+    public ResponseEntity<?> getMyOrderSummaries(
+            @RequestHeader("X-Authenticated-User-Username") String userEmail,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        try {
+            OrderSummaryPage page = orderService.getOrderSummaries(userEmail, cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * Get order by ID (user can only see their own orders)
      * @param orderId Order ID
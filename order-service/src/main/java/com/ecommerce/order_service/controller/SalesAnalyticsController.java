@@ -0,0 +1,107 @@
+package com.ecommerce.order_service.controller;
+
+import com.ecommerce.order_service.service.SalesAnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Sales analytics (Admin only).
+ * Served entirely from the pre-aggregated sales tables - these endpoints never scan orders.
+ */
+@RestController
+@RequestMapping("/api/v1/orders/analytics")
+public class SalesAnalyticsController {
+
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+
+    /**
+     * Revenue, units and order count per day
+     * @param from First day (inclusive), ISO date
+     * @param to Last day (inclusive), ISO date
+     */
+    @GetMapping("/daily")
+    public ResponseEntity<?> getDailySales(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestHeader(value = "X-Authenticated-User-Roles", defaultValue = "") String userRoles) {
+
+        if (!userRoles.contains("ROLE_ADMIN")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Admin access required"));
+        }
+
+        try {
+            return ResponseEntity.ok(salesAnalyticsService.getDailySales(from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Best-selling products over a date range, by revenue
+     * @param limit Number of products (max 100)
+     */
+    @GetMapping("/products")
+    public ResponseEntity<?> getTopProducts(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestHeader(value = "X-Authenticated-User-Roles", defaultValue = "") String userRoles) {
+
+        if (!userRoles.contains("ROLE_ADMIN")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Admin access required"));
+        }
+
+        try {
+            return ResponseEntity.ok(salesAnalyticsService.getTopProducts(from, to, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Daily sales of a single product
+     */
+    @GetMapping("/products/{productId}/daily")
+    public ResponseEntity<?> getProductDailySales(
+            @PathVariable Long productId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestHeader(value = "X-Authenticated-User-Roles", defaultValue = "") String userRoles) {
+
+        if (!userRoles.contains("ROLE_ADMIN")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Admin access required"));
+        }
+
+        try {
+            return ResponseEntity.ok(salesAnalyticsService.getProductDailySales(productId, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Recompute the aggregates from the order tables (repair/initial load)
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<?> rebuild(
+            @RequestHeader(value = "X-Authenticated-User-Roles", defaultValue = "") String userRoles) {
+
+        if (!userRoles.contains("ROLE_ADMIN")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Admin access required"));
+        }
+
+        salesAnalyticsService.rebuild();
+        return ResponseEntity.ok(Map.of("message", "Sales aggregates rebuilt"));
+    }
+}
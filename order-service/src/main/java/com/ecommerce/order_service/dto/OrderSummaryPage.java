@@ -0,0 +1,46 @@
+package com.ecommerce.order_service.dto;
+
+import com.ecommerce.order_service.model.OrderSummary;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a user's order history.
+ * nextCursor is opaque to clients - pass it back as ?cursor= to get the next page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryPage {
+
+    private List<OrderSummary> orders;
+    private String nextCursor;
+    private Boolean hasMore;
+
+    public List<OrderSummary> getOrders() {
+        return orders;
+    }
+
+    public void setOrders(List<OrderSummary> orders) {
+        this.orders = orders;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public Boolean getHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(Boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -0,0 +1,62 @@
+package com.ecommerce.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Sales of one product summed over a date range
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSalesTotal {
+
+    private Long productId;
+    private String productName;
+    private BigDecimal revenue;
+    private Long units;
+    private Long orderCount;
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+
+    public Long getUnits() {
+        return units;
+    }
+
+    public void setUnits(Long units) {
+        this.units = units;
+    }
+
+    public Long getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(Long orderCount) {
+        this.orderCount = orderCount;
+    }
+}
@@ -0,0 +1,91 @@
+package com.ecommerce.order_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated sales of one product on one day, same counting rules as DailySales.
+ * orderCount is the number of distinct orders containing the product.
+ */
+@Entity
+@Table(name = "sales_daily_product",
+        indexes = @Index(name = "idx_sales_daily_product_product", columnList = "product_id, sales_date"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyProductSales {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "product_name")
+    private String productName;
+
+    @Column(name = "revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+
+    @Column(name = "units", nullable = false)
+    private Long units;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        @Column(name = "sales_date")
+        private LocalDate salesDate;
+
+        @Column(name = "product_id")
+        private Long productId;
+    }
+
+    public Key getId() {
+        return id;
+    }
+
+    public void setId(Key id) {
+        this.id = id;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+
+    public Long getUnits() {
+        return units;
+    }
+
+    public void setUnits(Long units) {
+        this.units = units;
+    }
+
+    public Long getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(Long orderCount) {
+        this.orderCount = orderCount;
+    }
+}
@@ -1,8 +1,10 @@
 package com.ecommerce.order_service.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.springframework.data.domain.Persistable;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -11,10 +13,9 @@ import java.util.List;
 @Entity
 @Table(name = "orders")
 @Data
-public class Order {
+public class Order implements Persistable<Long> {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    Long id;
+    Long id;                 // Assigned by OrderIdGenerator before the first save
     String userEmail;        // Who placed the order
     @Enumerated(EnumType.STRING)
     OrderStatus status;      // PENDING, CONFIRMED, SHIPPED, DELIVERED
@@ -24,6 +25,24 @@ public class Order {
     @JsonManagedReference
     List<OrderItem> items;   // One-to-many relationship
 
+    // IDs are assigned up front, so tell Spring Data whether to persist or merge
+    // instead of letting it SELECT by ID on every save
+    @Transient
+    @JsonIgnore
+    boolean newEntity = true;
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
+
     public Long getId() {
         return id;
     }
@@ -20,8 +20,7 @@ import java.math.BigDecimal;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
+    private Long id;  // Assigned by OrderIdGenerator, inserted together with the order
 
     /**
      * Many OrderItems belong to one Order
@@ -0,0 +1,20 @@
+package com.ecommerce.order_service.repository;
+
+import com.ecommerce.order_service.model.ArchivedOrderItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ArchivedOrderItemRepository extends JpaRepository<ArchivedOrderItem, Long> {
+
+    List<ArchivedOrderItem> findByOrderIdIn(List<Long> orderIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO order_items_archive (id, order_id, product_id, product_name, quantity, unit_price, total_price) " +
+            "SELECT i.id, i.order_id, i.product_id, i.product_name, i.quantity, i.unit_price, i.total_price " +
+            "FROM order_items i WHERE i.order_id IN (:orderIds) ON CONFLICT (id) DO NOTHING", nativeQuery = true)
+    int copyFromOrderItems(@Param("orderIds") List<Long> orderIds);
+}
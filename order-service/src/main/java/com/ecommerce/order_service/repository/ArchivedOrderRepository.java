@@ -0,0 +1,28 @@
+package com.ecommerce.order_service.repository;
+
+import com.ecommerce.order_service.model.ArchivedOrder;
+import com.ecommerce.order_service.model.OrderStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    List<ArchivedOrder> findByUserEmail(String userEmail);
+    List<ArchivedOrder> findByStatus(OrderStatus status);
+
+    // Creation time of the newest archived order (null while the archive is empty)
+    @Query("SELECT MAX(a.createdAt) FROM ArchivedOrder a")
+    LocalDateTime findLatestCreatedAt();
+
+    // Copy a chunk of orders into the archive in one statement (ON CONFLICT makes a re-run after a crash harmless)
+    @Modifying
+    @Query(value = "INSERT INTO orders_archive (id, user_email, status, total_amount, created_at, archived_at) " +
+            "SELECT o.id, o.user_email, o.status, o.total_amount, o.created_at, :archivedAt " +
+            "FROM orders o WHERE o.id IN (:orderIds) ON CONFLICT (id) DO NOTHING", nativeQuery = true)
+    int copyFromOrders(@Param("orderIds") List<Long> orderIds, @Param("archivedAt") LocalDateTime archivedAt);
+}
@@ -0,0 +1,66 @@
+package com.ecommerce.order_service.repository;
+
+import com.ecommerce.order_service.dto.ProductSalesTotal;
+import com.ecommerce.order_service.model.DailyProductSales;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyProductSalesRepository extends JpaRepository<DailyProductSales, DailyProductSales.Key> {
+
+    @Query("SELECT p FROM DailyProductSales p WHERE p.id.productId = :productId " +
+            "AND p.id.salesDate BETWEEN :from AND :to ORDER BY p.id.salesDate")
+    List<DailyProductSales> findDailyForProduct(@Param("productId") Long productId,
+                                                @Param("from") LocalDate from,
+                                                @Param("to") LocalDate to);
+
+    // Best sellers over a range - sums at most (days x products) aggregate rows, never touches orders
+    @Query("SELECT new com.ecommerce.order_service.dto.ProductSalesTotal(" +
+            "p.id.productId, MAX(p.productName), SUM(p.revenue), SUM(p.units), SUM(p.orderCount)) " +
+            "FROM DailyProductSales p WHERE p.id.salesDate BETWEEN :from AND :to " +
+            "GROUP BY p.id.productId ORDER BY SUM(p.revenue) DESC")
+    List<ProductSalesTotal> findTopProducts(@Param("from") LocalDate from,
+                                            @Param("to") LocalDate to,
+                                            Pageable pageable);
+
+    @Modifying
+    @Query(value = "INSERT INTO sales_daily_product (sales_date, product_id, product_name, revenue, units, order_count) " +
+            "VALUES (:salesDate, :productId, :productName, :revenue, :units, :orders) " +
+            "ON CONFLICT (sales_date, product_id) DO UPDATE SET " +
+            "product_name = EXCLUDED.product_name, " +
+            "revenue = sales_daily_product.revenue + EXCLUDED.revenue, " +
+            "units = sales_daily_product.units + EXCLUDED.units, " +
+            "order_count = sales_daily_product.order_count + EXCLUDED.order_count", nativeQuery = true)
+    int applyDelta(@Param("salesDate") LocalDate salesDate,
+                   @Param("productId") Long productId,
+                   @Param("productName") String productName,
+                   @Param("revenue") BigDecimal revenue,
+                   @Param("units") long units,
+                   @Param("orders") long orders);
+
+    @Modifying
+    @Query(value = "DELETE FROM sales_daily_product", nativeQuery = true)
+    int deleteAllRows();
+
+    @Modifying
+    @Query(value = "INSERT INTO sales_daily_product (sales_date, product_id, product_name, revenue, units, order_count) " +
+            "SELECT t.sales_date, t.product_id, MAX(t.product_name), SUM(t.total_price), SUM(t.quantity), " +
+            "COUNT(DISTINCT t.order_id) FROM (" +
+            "  SELECT CAST(o.created_at AS date) AS sales_date, i.order_id, i.product_id, i.product_name, " +
+            "    i.total_price, i.quantity " +
+            "  FROM orders o JOIN order_items i ON i.order_id = o.id " +
+            "  WHERE o.status IN ('CONFIRMED', 'SHIPPED', 'DELIVERED') " +
+            "  UNION ALL " +
+            "  SELECT CAST(a.created_at AS date), ai.order_id, ai.product_id, ai.product_name, " +
+            "    ai.total_price, ai.quantity " +
+            "  FROM orders_archive a JOIN order_items_archive ai ON ai.order_id = a.id " +
+            "  WHERE a.status IN ('CONFIRMED', 'SHIPPED', 'DELIVERED')" +
+            ") t GROUP BY t.sales_date, t.product_id", nativeQuery = true)
+    int rebuildFromOrders();
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.order_service.repository;
+
+import com.ecommerce.order_service.model.DailySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailySalesRepository extends JpaRepository<DailySales, LocalDate> {
+
+    List<DailySales> findBySalesDateBetweenOrderBySalesDate(LocalDate from, LocalDate to);
+
+    // Add (or subtract, with negative values) one order's contribution to a day
+    @Modifying
+    @Query(value = "INSERT INTO sales_daily (sales_date, revenue, units, order_count) " +
+            "VALUES (:salesDate, :revenue, :units, :orders) " +
+            "ON CONFLICT (sales_date) DO UPDATE SET " +
+            "revenue = sales_daily.revenue + EXCLUDED.revenue, " +
+            "units = sales_daily.units + EXCLUDED.units, " +
+            "order_count = sales_daily.order_count + EXCLUDED.order_count", nativeQuery = true)
+    int applyDelta(@Param("salesDate") LocalDate salesDate,
+                   @Param("revenue") BigDecimal revenue,
+                   @Param("units") long units,
+                   @Param("orders") long orders);
+
+    @Modifying
+    @Query(value = "DELETE FROM sales_daily", nativeQuery = true)
+    int deleteAllRows();
+
+    // Recompute from scratch over hot and archived orders (CONFIRMED/SHIPPED/DELIVERED count as sales)
+    @Modifying
+    @Query(value = "INSERT INTO sales_daily (sales_date, revenue, units, order_count) " +
+            "SELECT t.sales_date, SUM(t.total_amount), SUM(t.units), COUNT(*) FROM (" +
+            "  SELECT CAST(o.created_at AS date) AS sales_date, o.total_amount, " +
+            "    (SELECT COALESCE(SUM(i.quantity), 0) FROM order_items i WHERE i.order_id = o.id) AS units " +
+            "  FROM orders o WHERE o.status IN ('CONFIRMED', 'SHIPPED', 'DELIVERED') " +
+            "  UNION ALL " +
+            "  SELECT CAST(a.created_at AS date), a.total_amount, " +
+            "    (SELECT COALESCE(SUM(ai.quantity), 0) FROM order_items_archive ai WHERE ai.order_id = a.id) " +
+            "  FROM orders_archive a WHERE a.status IN ('CONFIRMED', 'SHIPPED', 'DELIVERED')" +
+            ") t GROUP BY t.sales_date", nativeQuery = true)
+    int rebuildFromOrders();
+}
@@ -2,7 +2,11 @@ package com.ecommerce.order_service.repository;
 
 import com.ecommerce.order_service.model.Order;
 import com.ecommerce.order_service.model.OrderItem;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -20,4 +24,16 @@ public interface OrderItemRepository extends JpaRepository<OrderItem,Long> {
     // Find specific item in specific order
     Optional<OrderItem> findByOrder_IdAndProductId(Long orderId, Long productId);
 
+    // Units per order, as [orderId, sum(quantity)] rows
+    @Query("SELECT i.order.id, SUM(i.quantity) FROM OrderItem i WHERE i.order.id IN :orderIds GROUP BY i.order.id")
+    List<Object[]> sumQuantitiesByOrderIds(@Param("orderIds") List<Long> orderIds);
+
+    // Product IDs ranked by how often they appear on orders (used to warm the price cache)
+    @Query("SELECT i.productId FROM OrderItem i GROUP BY i.productId ORDER BY COUNT(i) DESC")
+    List<Long> findMostOrderedProductIds(Pageable pageable);
+
+    @Modifying
+    @Query(value = "DELETE FROM order_items WHERE order_id IN (:orderIds)", nativeQuery = true)
+    int deleteByOrderIds(@Param("orderIds") List<Long> orderIds);
+
 }
@@ -2,7 +2,11 @@ package com.ecommerce.order_service.repository;
 
 import com.ecommerce.order_service.model.Order;
 import com.ecommerce.order_service.model.OrderStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -14,4 +18,19 @@ public interface OrderRepository extends JpaRepository<Order,Long> {
     List<Order> findByStatus(OrderStatus status);
     List<Order> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
     List<Order> findByUserEmailAndStatus(String userEmail, OrderStatus status);
+
+    // Orders that have no row in the order_summary read model yet
+    @Query("SELECT o FROM Order o WHERE NOT EXISTS " +
+            "(SELECT 1 FROM OrderSummary s WHERE s.orderId = o.id) ORDER BY o.id")
+    List<Order> findOrdersWithoutSummary(Pageable pageable);
+
+    // IDs of finished orders old enough to move to the archive tables
+    @Query("SELECT o.id FROM Order o WHERE o.status IN :statuses AND o.createdAt < :cutoff ORDER BY o.id")
+    List<Long> findArchivableOrderIds(@Param("statuses") List<OrderStatus> statuses,
+                                      @Param("cutoff") LocalDateTime cutoff,
+                                      Pageable pageable);
+
+    @Modifying
+    @Query(value = "DELETE FROM orders WHERE id IN (:orderIds)", nativeQuery = true)
+    int deleteByIds(@Param("orderIds") List<Long> orderIds);
 }
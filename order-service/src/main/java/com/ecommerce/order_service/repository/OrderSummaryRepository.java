@@ -0,0 +1,39 @@
+package com.ecommerce.order_service.repository;
+
+import com.ecommerce.order_service.model.OrderSummary;
+import org.springframework.data.domain.Pageable;
+import com.ecommerce.order_service.model.OrderStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OrderSummaryRepository extends JpaRepository<OrderSummary, Long> {
+
+    // First page of a user's order history, newest first
+    @Query("SELECT s FROM OrderSummary s WHERE s.userEmail = :userEmail " +
+            "ORDER BY s.createdAt DESC, s.orderId DESC")
+    List<OrderSummary> findFirstPage(@Param("userEmail") String userEmail, Pageable pageable);
+
+    // Keyset page: everything strictly older than the (createdAt, orderId) cursor
+    @Query("SELECT s FROM OrderSummary s WHERE s.userEmail = :userEmail " +
+            "AND (s.createdAt < :createdAt OR (s.createdAt = :createdAt AND s.orderId < :orderId)) " +
+            "ORDER BY s.createdAt DESC, s.orderId DESC")
+    List<OrderSummary> findPageAfter(@Param("userEmail") String userEmail,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("orderId") Long orderId,
+                                     Pageable pageable);
+
+    // A user's first order (summaries outlive archival, so this includes archived orders)
+    @Query("SELECT MIN(s.createdAt) FROM OrderSummary s WHERE s.userEmail = :userEmail")
+    LocalDateTime findOldestCreatedAt(@Param("userEmail") String userEmail);
+
+    @Modifying
+    @Query("UPDATE OrderSummary s SET s.status = :status, s.updatedAt = :updatedAt WHERE s.orderId = :orderId")
+    int updateStatus(@Param("orderId") Long orderId,
+                     @Param("status") OrderStatus status,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+}
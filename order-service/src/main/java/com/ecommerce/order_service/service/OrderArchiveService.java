@@ -0,0 +1,220 @@
+package com.ecommerce.order_service.service;
+
+import com.ecommerce.order_service.model.ArchivedOrder;
+import com.ecommerce.order_service.model.ArchivedOrderItem;
+import com.ecommerce.order_service.model.Order;
+import com.ecommerce.order_service.model.OrderItem;
+import com.ecommerce.order_service.model.OrderStatus;
+import com.ecommerce.order_service.repository.ArchivedOrderItemRepository;
+import com.ecommerce.order_service.repository.ArchivedOrderRepository;
+import com.ecommerce.order_service.repository.OrderItemRepository;
+import com.ecommerce.order_service.repository.OrderRepository;
+import com.ecommerce.order_service.repository.OrderSummaryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Moves finished orders out of the hot orders/order_items tables.
+ *
+ * DELIVERED and CANCELLED orders older than the retention period are copied into
+ * orders_archive/order_items_archive and deleted from the hot tables, one chunk per
+ * transaction so the job never holds long locks. Archived orders can no longer change,
+ * so the read side only needs them as a fallback; order_summary rows are left in place
+ * so order history keeps listing them.
+ *
+ * Reads skip the archive when it can't hold what they look for: the archive only has orders
+ * created before the retention cutoff (or before its newest row, if retention was raised
+ * since), so a user whose first order is newer than that has nothing archived, and listings
+ * skip it entirely while it is empty.
+ */
+@Service
+public class OrderArchiveService {
+
+    private static final List<OrderStatus> ARCHIVABLE_STATUSES =
+            List.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private ArchivedOrderItemRepository archivedOrderItemRepository;
+
+    @Autowired
+    private OrderSummaryRepository orderSummaryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${order.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${order.archive.retention-days:365}")
+    private int retentionDays;
+
+    @Value("${order.archive.chunk-size:500}")
+    private int chunkSize;
+
+    // Newest archived order's creation time; null if the archive was empty when last checked
+    private volatile LocalDateTime latestArchived;
+    private volatile boolean latestArchivedKnown;
+
+    @Scheduled(cron = "${order.archive.cron:0 30 3 * * *}")
+    public void archiveCompletedOrders() {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        System.out.println(">>> Archiving completed orders created before " + cutoff);
+
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveChunk(cutoff));
+            total += moved;
+        } while (moved == chunkSize);
+
+        System.out.println(">>> Archived " + total + " orders");
+        refreshLatestArchived();
+    }
+
+    /**
+     * Re-read the newest archived order - also picks up archive runs of other instances
+     */
+    @Scheduled(fixedDelayString = "${order.archive.refresh-ms:300000}")
+    public void refreshLatestArchived() {
+        try {
+            latestArchived = archivedOrderRepository.findLatestCreatedAt();
+            latestArchivedKnown = true;
+        } catch (Exception e) {
+            // Until the next refresh, reads keep whatever was known (or always check the archive)
+            System.err.println(">>> Failed to read the archive's newest order: " + e.getMessage());
+        }
+    }
+
+    private int archiveChunk(LocalDateTime cutoff) {
+        List<Long> orderIds = orderRepository.findArchivableOrderIds(
+                ARCHIVABLE_STATUSES, cutoff, PageRequest.of(0, chunkSize));
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        archivedOrderRepository.copyFromOrders(orderIds, now);
+        archivedOrderItemRepository.copyFromOrderItems(orderIds);
+        orderItemRepository.deleteByOrderIds(orderIds);
+        orderRepository.deleteByIds(orderIds);
+        return orderIds.size();
+    }
+
+    // ---- Read fallback - archived rows are rebuilt as (detached) Order objects so callers can't tell the difference
+
+    @Transactional(readOnly = true)
+    public Optional<Order> findById(Long orderId) {
+        return archivedOrderRepository.findById(orderId)
+                .map(archived -> toOrders(List.of(archived)).get(0));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Order> findByUserEmail(String userEmail) {
+        // Index lookup on order_summary instead of the archive for the common case: nothing archived yet
+        LocalDateTime firstOrder = orderSummaryRepository.findOldestCreatedAt(userEmail);
+        if (firstOrder != null && !mayHoldOrderCreatedAt(firstOrder)) {
+            return List.of();
+        }
+        return toOrders(archivedOrderRepository.findByUserEmail(userEmail));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Order> findByStatus(OrderStatus status) {
+        if (!ARCHIVABLE_STATUSES.contains(status) || knownEmpty()) {
+            return List.of();
+        }
+        return toOrders(archivedOrderRepository.findByStatus(status));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Order> findAll() {
+        if (knownEmpty()) {
+            return List.of();
+        }
+        return toOrders(archivedOrderRepository.findAll());
+    }
+
+    /**
+     * Whether an order created at that time can have been archived. Orders only qualify
+     * once they are older than the retention period; the newest archived row covers
+     * orders archived under a shorter retention setting.
+     */
+    private boolean mayHoldOrderCreatedAt(LocalDateTime createdAt) {
+        if (!latestArchivedKnown) {
+            return true;
+        }
+        LocalDateTime latest = latestArchived;
+        return createdAt.isBefore(LocalDateTime.now().minusDays(retentionDays))
+                || (latest != null && !createdAt.isAfter(latest));
+    }
+
+    /**
+     * Empty as of the last refresh. An archive run elsewhere can fill it in the meantime,
+     * at most order.archive.refresh-ms before this instance notices.
+     */
+    private boolean knownEmpty() {
+        return latestArchivedKnown && latestArchived == null;
+    }
+
+    private List<Order> toOrders(List<ArchivedOrder> archivedOrders) {
+        if (archivedOrders.isEmpty()) {
+            return List.of();
+        }
+
+        // One query for the items of every order in the list
+        List<Long> orderIds = archivedOrders.stream().map(ArchivedOrder::getId).toList();
+        Map<Long, List<ArchivedOrderItem>> itemsByOrder = archivedOrderItemRepository.findByOrderIdIn(orderIds)
+                .stream()
+                .collect(Collectors.groupingBy(ArchivedOrderItem::getOrderId));
+
+        List<Order> orders = new ArrayList<>();
+        for (ArchivedOrder archived : archivedOrders) {
+            Order order = new Order();
+            order.setId(archived.getId());
+            order.setUserEmail(archived.getUserEmail());
+            order.setStatus(archived.getStatus());
+            order.setTotalAmount(archived.getTotalAmount());
+            order.setCreatedAt(archived.getCreatedAt());
+            order.setItems(new ArrayList<>());
+
+            for (ArchivedOrderItem archivedItem : itemsByOrder.getOrDefault(archived.getId(), List.of())) {
+                OrderItem item = new OrderItem();
+                item.setId(archivedItem.getId());
+                item.setOrder(order);
+                item.setProductId(archivedItem.getProductId());
+                item.setProductName(archivedItem.getProductName());
+                item.setQuantity(archivedItem.getQuantity());
+                item.setUnitPrice(archivedItem.getUnitPrice());
+                item.setTotalPrice(archivedItem.getTotalPrice());
+                order.getItems().add(item);
+            }
+            orders.add(order);
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,91 @@
+package com.ecommerce.order_service.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Time-ordered, node-unique ID generator (Snowflake-style) for orders and order items.
+ *
+ * Layout (53 bits, so IDs stay exact as JavaScript numbers in the frontend):
+ * - 41 bits: milliseconds since 2024-01-01 (~69 years)
+ * -  5 bits: node ID (0-31), from order.id.node-id - required, unique per instance
+ * -  7 bits: per-millisecond sequence (128 IDs/ms per node)
+ *
+ * IDs are known before the insert, so an order and its items can be written
+ * in one batched insert instead of saving first to get an IDENTITY value.
+ */
+@Component
+public class OrderIdGenerator {
+
+    private static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final int NODE_BITS = 5;
+    private static final int SEQUENCE_BITS = 7;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long MAX_BACKWARDS_DRIFT_MS = 5000;
+
+    @Value("${order.id.node-id:-1}")
+    private long configuredNodeId;
+
+    private long nodeId;
+    private long lastTimestamp = -1L;
+    private long sequence = 0L;
+
+    @PostConstruct
+    public void init() {
+        // No default: replicas with the same node ID would mint the same IDs in the same millisecond
+        if (configuredNodeId < 0 || configuredNodeId > MAX_NODE_ID) {
+            throw new IllegalStateException("order.id.node-id must be set to a value between 0 and " + MAX_NODE_ID +
+                    ", unique for every running instance");
+        }
+        nodeId = configuredNodeId;
+        System.out.println(">>> Order ID generator using node ID " + nodeId);
+    }
+
+    public synchronized long nextId() {
+        long timestamp = System.currentTimeMillis();
+
+        if (timestamp < lastTimestamp) {
+            long drift = lastTimestamp - timestamp;
+            if (drift > MAX_BACKWARDS_DRIFT_MS) {
+                throw new RuntimeException("Clock moved backwards by " + drift + "ms, refusing to generate IDs");
+            }
+            // Small NTP adjustment - keep issuing IDs from the last timestamp we used
+            timestamp = lastTimestamp;
+        }
+
+        if (timestamp == lastTimestamp) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                // Sequence exhausted for this millisecond
+                timestamp = waitForNextMillis(lastTimestamp);
+            }
+        } else {
+            sequence = 0L;
+        }
+
+        lastTimestamp = timestamp;
+        return ((timestamp - EPOCH) << (NODE_BITS + SEQUENCE_BITS))
+                | (nodeId << SEQUENCE_BITS)
+                | sequence;
+    }
+
+    private long waitForNextMillis(long lastTimestamp) {
+        long timestamp = System.currentTimeMillis();
+        if (timestamp < lastTimestamp) {
+            // Running on borrowed time after the clock moved back - waiting could hold the lock
+            // (and every order thread) for seconds, so fail this ID instead
+            throw new RuntimeException("Clock is " + (lastTimestamp - timestamp) +
+                    "ms behind the last order ID and this millisecond's IDs are used up, try again");
+        }
+        // Only the rest of the current millisecond
+        while (timestamp <= lastTimestamp) {
+            Thread.onSpinWait();
+            timestamp = System.currentTimeMillis();
+        }
+        return timestamp;
+    }
+}
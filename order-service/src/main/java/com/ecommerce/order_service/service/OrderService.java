@@ -1,6 +1,7 @@
 package com.ecommerce.order_service.service;
 
 import com.ecommerce.order_service.dto.CreateOrderRequest;
+import com.ecommerce.order_service.dto.OrderSummaryPage;
 import com.ecommerce.order_service.model.Order;
 import com.ecommerce.order_service.model.OrderStatus;
 
@@ -24,6 +25,16 @@ public interface OrderService {
      */
     List<Order> getOrdersByUser(String userEmail);
 
+    /**
+     * Get a page of order summaries for a user, newest first.
+     * Served from the order_summary read model - never loads order items.
+     * @param userEmail User's email
+     * @param cursor nextCursor from the previous page, or null for the first page
+     * @param size Page size
+     * @return Page of summaries with the cursor for the next page
+     */
+    OrderSummaryPage getOrderSummaries(String userEmail, String cursor, int size);
+
     /**
      * Get order by ID
      * @param orderId Order ID
@@ -3,8 +3,8 @@ package com.ecommerce.order_service.service;
 import com.ecommerce.order_service.dto.StockReservationRequest;
 import com.ecommerce.order_service.dto.StockValidationResponse;
 import com.ecommerce.order_service.client.InventoryServiceClient;
-import com.ecommerce.order_service.client.ProductServiceClient;
 import com.ecommerce.order_service.dto.CreateOrderRequest;
+import com.ecommerce.order_service.dto.OrderSummaryPage;
 import com.ecommerce.order_service.dto.ProductResponse;
 import com.ecommerce.order_service.model.Order;
 import com.ecommerce.order_service.model.OrderItem;
@@ -19,6 +19,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -28,11 +29,23 @@ public class OrderServiceImpl implements OrderService {
     private OrderRepository orderRepository;
 
     @Autowired
-    private ProductServiceClient productServiceClient;
+    private ProductPriceCache productPriceCache;
 
     @Autowired
     private InventoryServiceClient inventoryClient;
 
+    @Autowired
+    private OrderSummaryService orderSummaryService;
+
+    @Autowired
+    private OrderIdGenerator orderIdGenerator;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+
     @Transactional
     @Override
     public Order createOrder(CreateOrderRequest request, String userEmail) {
@@ -52,21 +65,25 @@ public class OrderServiceImpl implements OrderService {
                     ": " + item.getQuantity() + " items available");
         }
 
-        // 2. Create initial order to get an ID
-        System.out.println(">>> Step 2: Creating initial order");
+        // 2. Resolve names and prices before anything is reserved, so a catalog
+        //    problem fails the order without having to undo reservations
+        System.out.println(">>> Step 2: Resolving product prices");
+        Map<Long, ProductResponse> products = productPriceCache.getProducts(
+                request.getItems().stream().map(CreateOrderRequest.OrderItemRequest::getProductId).toList());
+
+        // 3. Assign the order ID up front - nothing is written until stock is reserved
         Order order = new Order();
+        order.setId(orderIdGenerator.nextId());
         order.setUserEmail(userEmail);
         order.setStatus(OrderStatus.PENDING);
         order.setCreatedAt(LocalDateTime.now());
         order.setItems(new ArrayList<>());
+        String orderId = "ORDER-" + order.getId();
+        System.out.println(">>> Step 3: Assigned order ID: " + orderId);
 
-        // Save order to get an ID for reservations
-        Order savedOrder = orderRepository.save(order);
-        String orderId = "ORDER-" + savedOrder.getId();
-        System.out.println(">>> Order created with ID: " + orderId);
-
-        // 3. Reserve stock for each item using inventory service
-        System.out.println(">>> Step 3: Reserving stock for order items");
+        // 4. Reserve stock for each item using inventory service
+        System.out.println(">>> Step 4: Reserving stock for order items");
+        List<CreateOrderRequest.OrderItemRequest> reserved = new ArrayList<>();
         try {
             for (CreateOrderRequest.OrderItemRequest item : request.getItems()) {
                 StockReservationRequest reservationRequest = new StockReservationRequest();
@@ -78,37 +95,27 @@ public class OrderServiceImpl implements OrderService {
                 reservationRequest.setNotes("Order creation reservation for " + orderId);
 
                 inventoryClient.reserveStock(reservationRequest);
+                reserved.add(item);
                 System.out.println(">>> Reserved " + item.getQuantity() +
                         " units of product " + item.getProductId());
             }
         } catch (Exception e) {
-            System.err.println(">>> Stock reservation failed, rolling back order");
-            // If reservation fails, we should clean up the order
-            orderRepository.delete(savedOrder);
+            System.err.println(">>> Stock reservation failed, releasing what was already reserved");
+            releaseOrderReservations(orderId, reserved.stream().map(CreateOrderRequest.OrderItemRequest::getProductId).toList(), userEmail);
             throw new RuntimeException("Failed to reserve stock: " + e.getMessage());
         }
 
-        // 4. Process order items and build complete order
-        System.out.println(">>> Step 4: Processing order items and calculating totals");
+        // 5. Build order items from the resolved prices (no remote calls)
+        System.out.println(">>> Step 5: Processing order items and calculating totals");
         BigDecimal totalAmount = BigDecimal.ZERO;
 
         for (CreateOrderRequest.OrderItemRequest itemRequest : request.getItems()) {
-            // Get product details from Product Service
-            ProductResponse product;
-            try {
-                product = productServiceClient.getProductById(itemRequest.getProductId());
-            } catch (Exception e) {
-                // If product lookup fails after reservation, release reservations
-                System.err.println(">>> Product lookup failed, releasing reservations");
-                releaseOrderReservations(orderId, savedOrder.getItems(), userEmail);
-                orderRepository.delete(savedOrder);
-                throw new RuntimeException("Product with ID " + itemRequest.getProductId() +
-                        " not found or service unavailable");
-            }
+            ProductResponse product = products.get(itemRequest.getProductId());
 
             // Create order item
             OrderItem orderItem = new OrderItem();
-            orderItem.setOrder(savedOrder);
+            orderItem.setId(orderIdGenerator.nextId());
+            orderItem.setOrder(order);
             orderItem.setProductId(product.getId());
             orderItem.setProductName(product.getName());
             orderItem.setQuantity(itemRequest.getQuantity());
@@ -116,7 +123,7 @@ public class OrderServiceImpl implements OrderService {
             orderItem.calculateTotalPrice(); // This sets totalPrice = unitPrice * quantity
 
             // Add to order
-            savedOrder.getItems().add(orderItem);
+            order.getItems().add(orderItem);
 
             // Add to total amount
             totalAmount = totalAmount.add(orderItem.getTotalPrice());
@@ -126,9 +133,17 @@ public class OrderServiceImpl implements OrderService {
                     " = $" + orderItem.getTotalPrice());
         }
 
-        // 5. Set total amount and save final order
-        savedOrder.setTotalAmount(totalAmount);
-        Order finalOrder = orderRepository.save(savedOrder);
+        // 6. Set total amount and insert order + items in one batch
+        order.setTotalAmount(totalAmount);
+        Order finalOrder;
+        try {
+            finalOrder = orderRepository.saveAndFlush(order);
+        } catch (Exception e) {
+            System.err.println(">>> Saving order failed, releasing reservations");
+            releaseOrderReservations(orderId, reserved.stream().map(CreateOrderRequest.OrderItemRequest::getProductId).toList(), userEmail);
+            throw new RuntimeException("Failed to save order: " + e.getMessage());
+        }
+        orderSummaryService.recordOrder(finalOrder);
 
         System.out.println(">>> Order creation completed. Total: $" + totalAmount);
         System.out.println(">>> Stock reserved for 30 minutes. Order status: " + finalOrder.getStatus());
@@ -136,28 +151,27 @@ public class OrderServiceImpl implements OrderService {
         return finalOrder;
     }
 
-    private void releaseOrderReservations(String orderId, List<OrderItem> items, String userEmail) {
+    private void releaseOrderReservations(String orderId, List<Long> productIds, String userEmail) {
         System.err.println(">>> CLEANUP: Starting reservation release for failed order: " + orderId);
 
         int successCount = 0;
         int failureCount = 0;
 
         try {
-            for (OrderItem item : items) {
+            for (Long productId : productIds) {
                 try {
-                    System.err.println(">>> Attempting to release reservation for product: " +
-                            item.getProductId() + ", quantity: " + item.getQuantity());
+                    System.err.println(">>> Attempting to release reservation for product: " + productId);
 
                     // Call inventory service via Feign client
-                    inventoryClient.releaseReservation(orderId, item.getProductId(),userEmail);
+                    inventoryClient.releaseReservation(orderId, productId, userEmail);
 
                     successCount++;
-                    System.err.println(">>> ✅ Successfully released reservation for product: " + item.getProductId());
+                    System.err.println(">>> ✅ Successfully released reservation for product: " + productId);
 
                 } catch (Exception e) {
                     failureCount++;
                     System.err.println(">>> Failed to release reservation for product: " +
-                            item.getProductId() + ", error: " + e.getMessage());
+                            productId + ", error: " + e.getMessage());
 
                     // Continue with next item - don't let one failure stop the cleanup
                 }
@@ -175,18 +189,28 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     public List<Order> getOrdersByUser(String userEmail) {
-        return orderRepository.findByUserEmail(userEmail);
+        List<Order> orders = new ArrayList<>(orderRepository.findByUserEmail(userEmail));
+        orders.addAll(orderArchiveService.findByUserEmail(userEmail));
+        return orders;
     }
 
 
+    @Override
+    public OrderSummaryPage getOrderSummaries(String userEmail, String cursor, int size) {
+        return orderSummaryService.getSummaries(userEmail, cursor, size);
+    }
+
     @Override
     public Optional<Order> getOrderById(Long orderId) {
-        return orderRepository.findById(orderId);
+        Optional<Order> order = orderRepository.findById(orderId);
+        return order.isPresent() ? order : orderArchiveService.findById(orderId);
     }
 
     @Override
     public List<Order> getAllOrders() {
-        return orderRepository.findAll();
+        List<Order> orders = new ArrayList<>(orderRepository.findAll());
+        orders.addAll(orderArchiveService.findAll());
+        return orders;
     }
 
     @Override
@@ -211,12 +235,18 @@ public class OrderServiceImpl implements OrderService {
             }
         }
 
+        OrderStatus previousStatus = order.getStatus();
         order.setStatus(status);
-        return orderRepository.save(order);
+        Order updatedOrder = orderRepository.save(order);
+        orderSummaryService.recordStatusChange(updatedOrder, status);
+        salesAnalyticsService.recordTransition(updatedOrder, previousStatus, status);
+        return updatedOrder;
     }
 
     @Override
     public List<Order> getOrdersByStatus(OrderStatus status) {
-        return orderRepository.findByStatus(status);
+        List<Order> orders = new ArrayList<>(orderRepository.findByStatus(status));
+        orders.addAll(orderArchiveService.findByStatus(status));
+        return orders;
     }
 }
\ No newline at end of file
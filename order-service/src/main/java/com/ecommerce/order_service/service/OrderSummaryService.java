@@ -0,0 +1,174 @@
+package com.ecommerce.order_service.service;
+
+import com.ecommerce.order_service.dto.OrderSummaryPage;
+import com.ecommerce.order_service.model.Order;
+import com.ecommerce.order_service.model.OrderItem;
+import com.ecommerce.order_service.model.OrderStatus;
+import com.ecommerce.order_service.model.OrderSummary;
+import com.ecommerce.order_service.repository.OrderItemRepository;
+import com.ecommerce.order_service.repository.OrderRepository;
+import com.ecommerce.order_service.repository.OrderSummaryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the order_summary read model and serves the order history screen from it.
+ * Every order write goes through here in the same transaction as the write itself,
+ * so the summary never lags behind the orders table.
+ */
+@Service
+public class OrderSummaryService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int BACKFILL_CHUNK_SIZE = 500;
+
+    @Autowired
+    private OrderSummaryRepository orderSummaryRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Create or fully refresh the summary row from an order aggregate
+     * (items must already be attached to the order)
+     */
+    @Transactional
+    public OrderSummary recordOrder(Order order) {
+        int itemCount = 0;
+        if (order.getItems() != null) {
+            for (OrderItem item : order.getItems()) {
+                itemCount += item.getQuantity();
+            }
+        }
+        return orderSummaryRepository.save(toSummary(order, itemCount));
+    }
+
+    /**
+     * Status changes only touch the status column - no need to load items
+     */
+    @Transactional
+    public void recordStatusChange(Order order, OrderStatus status) {
+        int updated = orderSummaryRepository.updateStatus(order.getId(), status, LocalDateTime.now());
+        if (updated == 0) {
+            // Order predates the read model and was not backfilled yet
+            recordOrder(order);
+        }
+    }
+
+    /**
+     * Cursor-paginated order history for a user, newest first
+     * @param cursor value of nextCursor from the previous page, or null for the first page
+     */
+    @Transactional(readOnly = true)
+    public OrderSummaryPage getSummaries(String userEmail, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<OrderSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = orderSummaryRepository.findFirstPage(userEmail, limit);
+        } else {
+            Object[] position = decodeCursor(cursor);
+            rows = orderSummaryRepository.findPageAfter(userEmail,
+                    (LocalDateTime) position[0], (Long) position[1], limit);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<OrderSummary> page = hasMore ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        String nextCursor = hasMore ? encodeCursor(page.get(page.size() - 1)) : null;
+
+        return new OrderSummaryPage(page, nextCursor, hasMore);
+    }
+
+    /**
+     * Build summaries for orders created before the read model existed.
+     * One transaction per chunk, so a large orders table neither has to fit in one persistence
+     * context nor holds one long transaction open; a restart resumes from the first missing order.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMissingSummaries() {
+        int total = 0;
+        int backfilled;
+        do {
+            backfilled = transactionTemplate.execute(status -> backfillChunk());
+            total += backfilled;
+        } while (backfilled == BACKFILL_CHUNK_SIZE);
+
+        if (total > 0) {
+            System.out.println(">>> Backfilled order summaries for " + total + " orders");
+        }
+    }
+
+    /**
+     * @return How many summaries were written
+     */
+    private int backfillChunk() {
+        List<Order> chunk = orderRepository.findOrdersWithoutSummary(PageRequest.of(0, BACKFILL_CHUNK_SIZE));
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> orderIds = chunk.stream().map(Order::getId).toList();
+        Map<Long, Integer> itemCounts = new HashMap<>();
+        for (Object[] row : orderItemRepository.sumQuantitiesByOrderIds(orderIds)) {
+            itemCounts.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+
+        List<OrderSummary> summaries = new ArrayList<>();
+        for (Order order : chunk) {
+            summaries.add(toSummary(order, itemCounts.getOrDefault(order.getId(), 0)));
+        }
+        orderSummaryRepository.saveAll(summaries);
+        return summaries.size();
+    }
+
+    private OrderSummary toSummary(Order order, int itemCount) {
+        OrderSummary summary = new OrderSummary();
+        summary.setOrderId(order.getId());
+        summary.setUserEmail(order.getUserEmail());
+        summary.setStatus(order.getStatus());
+        summary.setTotalAmount(order.getTotalAmount());
+        summary.setItemCount(itemCount);
+        summary.setCreatedAt(order.getCreatedAt());
+        summary.setUpdatedAt(LocalDateTime.now());
+        return summary;
+    }
+
+    private String encodeCursor(OrderSummary last) {
+        String raw = last.getCreatedAt() + "|" + last.getOrderId();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Object[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            LocalDateTime createdAt = LocalDateTime.parse(raw.substring(0, separator));
+            Long orderId = Long.valueOf(raw.substring(separator + 1));
+            return new Object[]{createdAt, orderId};
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.ecommerce.order_service.service;
+
+import com.ecommerce.order_service.client.ProductServiceClient;
+import com.ecommerce.order_service.dto.ProductChangeResponse;
+import com.ecommerce.order_service.dto.ProductResponse;
+import com.ecommerce.order_service.repository.OrderItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local snapshot of product name/price used to price orders.
+ *
+ * - Bounded (max-size) and TTL based: entries older than ttl-seconds are reloaded on access
+ * - Misses are resolved with ONE multi-id call to product-catalog-service, not one call per item
+ * - Warmed at startup with the most frequently ordered products
+ * - Entries past half their TTL are refreshed in the background, so hot products
+ *   are normally served from memory without ever expiring on the request path
+ * - If the catalog is down, entries up to max-stale-seconds old are still served
+ * - Follows the catalog's product change feed and drops products as soon as their
+ *   name or price changes or they are deleted, instead of serving them until the TTL runs out.
+ *   A load that was already fetching when a product was dropped doesn't put it back
+ */
+@Component
+public class ProductPriceCache {
+
+    private static final int FETCH_CHUNK_SIZE = 200;
+    private static final int FEED_PAGE_SIZE = 500;
+
+    @Autowired
+    private ProductServiceClient productServiceClient;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Value("${order.product-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${order.product-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${order.product-cache.max-stale-seconds:3600}")
+    private long maxStaleSeconds;
+
+    @Value("${order.product-cache.warmup-size:1000}")
+    private int warmupSize;
+
+    private final Map<Long, CachedProduct> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    // Eviction sequence per product dropped while loads were running; a load started at sequence N
+    // skips products evicted after N, whose fetched snapshot may predate the change.
+    // Cleared whenever no load is running.
+    private final AtomicLong evictionSeq = new AtomicLong();
+    private final Map<Long, Long> evictedAt = new ConcurrentHashMap<>();
+    private final AtomicInteger loadsInFlight = new AtomicInteger();
+
+    // Change feed position applied so far; -1 until taken from the feed head
+    private volatile long feedPosition = -1;
+
+    /**
+     * Resolve products for pricing an order.
+     * @return product by ID for every requested ID
+     * @throws RuntimeException if a product does not exist or can't be resolved at all
+     */
+    public Map<Long, ProductResponse> getProducts(Collection<Long> productIds) {
+        Map<Long, ProductResponse> result = new HashMap<>();
+        Set<Long> toLoad = new LinkedHashSet<>();
+        long now = System.currentTimeMillis();
+
+        for (Long productId : productIds) {
+            CachedProduct cached = entries.get(productId);
+            if (cached != null && cached.ageMillis(now) < ttlSeconds * 1000) {
+                result.put(productId, cached.product);
+                hits.incrementAndGet();
+            } else {
+                toLoad.add(productId);
+                misses.incrementAndGet();
+            }
+        }
+
+        if (!toLoad.isEmpty()) {
+            try {
+                result.putAll(load(toLoad));
+            } catch (Exception e) {
+                // Catalog unavailable - fall back to stale snapshots we still trust
+                System.err.println(">>> Product catalog lookup failed, trying stale prices: " + e.getMessage());
+                for (Long productId : toLoad) {
+                    CachedProduct cached = entries.get(productId);
+                    if (cached != null && cached.ageMillis(now) < maxStaleSeconds * 1000) {
+                        result.put(productId, cached.product);
+                    }
+                }
+            }
+        }
+
+        for (Long productId : productIds) {
+            if (!result.containsKey(productId)) {
+                throw new RuntimeException("Product with ID " + productId +
+                        " not found or service unavailable");
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drop a product from the cache (e.g. when we learn its price changed)
+     */
+    public void evict(Long productId) {
+        evictedAt.put(productId, evictionSeq.incrementAndGet());
+        entries.remove(productId);
+    }
+
+    /**
+     * Warm the cache with the most frequently ordered products
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            // Before loading, so changes made while warming up are still applied afterwards
+            initFeedPosition();
+            List<Long> topProductIds = orderItemRepository.findMostOrderedProductIds(
+                    PageRequest.of(0, Math.min(warmupSize, maxSize)));
+            if (!topProductIds.isEmpty()) {
+                load(topProductIds);
+                System.out.println(">>> Product price cache warmed with " + entries.size() + " products");
+            }
+        } catch (Exception e) {
+            System.err.println(">>> Product price cache warm-up skipped: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Refresh-ahead: reload entries that are past half their TTL in batches
+     */
+    @Scheduled(fixedDelayString = "${order.product-cache.refresh-interval-ms:60000}")
+    public void refreshAgingEntries() {
+        long now = System.currentTimeMillis();
+        List<Long> aging = new ArrayList<>();
+        entries.forEach((productId, cached) -> {
+            if (cached.ageMillis(now) >= ttlSeconds * 500) {
+                aging.add(productId);
+            }
+        });
+
+        if (!aging.isEmpty()) {
+            try {
+                Map<Long, ProductResponse> refreshed = load(aging);
+                // Products that no longer exist in the catalog must not be sold at a cached price
+                aging.stream().filter(id -> !refreshed.containsKey(id)).forEach(entries::remove);
+            } catch (Exception e) {
+                System.err.println(">>> Product price cache refresh failed: " + e.getMessage());
+            }
+        }
+
+        long total = hits.get() + misses.get();
+        if (total > 0) {
+            System.out.println(">>> Product price cache: " + entries.size() + " entries, hit ratio " +
+                    (hits.get() * 100 / total) + "%");
+        }
+    }
+
+    /**
+     * Apply the catalog's product change feed: every changed or deleted product is dropped
+     * and reloaded with its current price on next use
+     */
+    @Scheduled(fixedDelayString = "${order.product-cache.feed-poll-ms:5000}")
+    public synchronized void applyProductChanges() {
+        try {
+            if (feedPosition < 0) {
+                // Nothing cached can predate the head we start from
+                initFeedPosition();
+                return;
+            }
+            List<ProductChangeResponse> changes;
+            do {
+                changes = productServiceClient.getProductChanges(feedPosition, FEED_PAGE_SIZE);
+                for (ProductChangeResponse change : changes) {
+                    evict(change.getProductId());
+                    feedPosition = change.getId();
+                }
+            } while (changes.size() == FEED_PAGE_SIZE);
+        } catch (Exception e) {
+            System.err.println(">>> Product change feed poll failed: " + e.getMessage());
+        }
+    }
+
+    private synchronized void initFeedPosition() {
+        if (feedPosition < 0) {
+            feedPosition = productServiceClient.getProductChangesHead().get("position");
+        }
+    }
+
+    private Map<Long, ProductResponse> load(Collection<Long> productIds) {
+        Map<Long, ProductResponse> loaded = new HashMap<>();
+        List<Long> ids = new ArrayList<>(productIds);
+        long now = System.currentTimeMillis();
+
+        // Registered before taking the sequence, so markers this load needs are never cleared under it
+        loadsInFlight.incrementAndGet();
+        long startedAt = evictionSeq.get();
+        try {
+            for (int from = 0; from < ids.size(); from += FETCH_CHUNK_SIZE) {
+                List<Long> chunk = ids.subList(from, Math.min(from + FETCH_CHUNK_SIZE, ids.size()));
+                for (ProductResponse product : productServiceClient.getProductsByIds(chunk)) {
+                    // Checked under the key's lock, so an eviction either sees our entry or we see its marker
+                    entries.compute(product.getId(), (productId, cached) ->
+                            evictedAt.getOrDefault(productId, 0L) > startedAt
+                                    ? cached : new CachedProduct(product, now));
+                    loaded.put(product.getId(), product);
+                }
+            }
+        } finally {
+            long seenUpTo = evictionSeq.get();
+            if (loadsInFlight.decrementAndGet() == 0) {
+                // Any load starting from here on takes a sequence of at least seenUpTo
+                evictedAt.values().removeIf(seq -> seq <= seenUpTo);
+            }
+        }
+
+        evictIfOversized();
+        return loaded;
+    }
+
+    private void evictIfOversized() {
+        int overflow = entries.size() - maxSize;
+        if (overflow <= 0) {
+            return;
+        }
+        // Drop the oldest snapshots first, plus some headroom so we don't sort on every load
+        int toRemove = overflow + maxSize / 10;
+        entries.entrySet().stream()
+                .sorted(Comparator.comparingLong(e -> e.getValue().loadedAt))
+                .limit(toRemove)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(entries::remove);
+    }
+
+    private static class CachedProduct {
+        private final ProductResponse product;
+        private final long loadedAt;
+
+        CachedProduct(ProductResponse product, long loadedAt) {
+            this.product = product;
+            this.loadedAt = loadedAt;
+        }
+
+        long ageMillis(long now) {
+            return now - loadedAt;
+        }
+    }
+}
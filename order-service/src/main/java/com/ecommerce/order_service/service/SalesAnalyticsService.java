@@ -0,0 +1,177 @@
+package com.ecommerce.order_service.service;
+
+import com.ecommerce.order_service.dto.ProductSalesTotal;
+import com.ecommerce.order_service.model.DailyProductSales;
+import com.ecommerce.order_service.model.DailySales;
+import com.ecommerce.order_service.model.Order;
+import com.ecommerce.order_service.model.OrderItem;
+import com.ecommerce.order_service.model.OrderStatus;
+import com.ecommerce.order_service.repository.DailyProductSalesRepository;
+import com.ecommerce.order_service.repository.DailySalesRepository;
+import com.ecommerce.order_service.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Incremental sales aggregates (sales_daily, sales_daily_product).
+ *
+ * An order counts as a sale from the moment it is CONFIRMED until it is CANCELLED;
+ * SHIPPED and DELIVERED keep it counted. Each status change applies the order's
+ * contribution as a +/- delta with an upsert in the same transaction as the status
+ * change, so range queries only ever read the small aggregate tables.
+ */
+@Service
+public class SalesAnalyticsService {
+
+    private static final Set<OrderStatus> COUNTED_STATUSES =
+            EnumSet.of(OrderStatus.CONFIRMED, OrderStatus.SHIPPED, OrderStatus.DELIVERED);
+    private static final int MAX_TOP_PRODUCTS = 100;
+
+    @Autowired
+    private DailySalesRepository dailySalesRepository;
+
+    @Autowired
+    private DailyProductSalesRepository dailyProductSalesRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private volatile boolean initializationPending;
+
+    /**
+     * Apply an order's status change to the aggregates
+     */
+    @Transactional
+    public void recordTransition(Order order, OrderStatus from, OrderStatus to) {
+        boolean wasCounted = from != null && COUNTED_STATUSES.contains(from);
+        boolean isCounted = to != null && COUNTED_STATUSES.contains(to);
+        if (wasCounted == isCounted) {
+            return;
+        }
+
+        int sign = isCounted ? 1 : -1;
+        LocalDate salesDate = order.getCreatedAt().toLocalDate();
+
+        // Collapse lines per product so order_count counts each order once per product
+        Map<Long, OrderItem> byProduct = new LinkedHashMap<>();
+        long units = 0;
+        for (OrderItem item : order.getItems()) {
+            units += item.getQuantity();
+            byProduct.merge(item.getProductId(), copyOf(item), (existing, next) -> {
+                existing.setQuantity(existing.getQuantity() + next.getQuantity());
+                existing.setTotalPrice(existing.getTotalPrice().add(next.getTotalPrice()));
+                return existing;
+            });
+        }
+
+        BigDecimal revenue = order.getTotalAmount() != null ? order.getTotalAmount() : BigDecimal.ZERO;
+        dailySalesRepository.applyDelta(salesDate, revenue.multiply(BigDecimal.valueOf(sign)),
+                sign * units, sign);
+
+        for (OrderItem line : byProduct.values()) {
+            dailyProductSalesRepository.applyDelta(salesDate, line.getProductId(), line.getProductName(),
+                    line.getTotalPrice().multiply(BigDecimal.valueOf(sign)),
+                    (long) sign * line.getQuantity(), sign);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<DailySales> getDailySales(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return dailySalesRepository.findBySalesDateBetweenOrderBySalesDate(from, to);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductSalesTotal> getTopProducts(LocalDate from, LocalDate to, int limit) {
+        validateRange(from, to);
+        int pageSize = Math.max(1, Math.min(limit, MAX_TOP_PRODUCTS));
+        return dailyProductSalesRepository.findTopProducts(from, to, PageRequest.of(0, pageSize));
+    }
+
+    @Transactional(readOnly = true)
+    public List<DailyProductSales> getProductDailySales(Long productId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return dailyProductSalesRepository.findDailyForProduct(productId, from, to);
+    }
+
+    /**
+     * Recompute all aggregates from the order tables (hot + archive).
+     * This is the one place that scans orders - use it for the initial load or to repair drift.
+     */
+    @Transactional
+    public void rebuild() {
+        System.out.println(">>> Rebuilding sales aggregates from orders");
+        dailySalesRepository.deleteAllRows();
+        dailyProductSalesRepository.deleteAllRows();
+        int days = dailySalesRepository.rebuildFromOrders();
+        int productDays = dailyProductSalesRepository.rebuildFromOrders();
+        System.out.println(">>> Sales aggregates rebuilt: " + days + " days, " + productDays + " product-days");
+    }
+
+    /**
+     * First start with the analytics tables - load them from existing orders.
+     * Runs the rebuild through the TransactionTemplate: called from this bean, rebuild()'s
+     * own @Transactional would be bypassed and its delete/insert queries would have no transaction.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeAggregates() {
+        try {
+            if (dailySalesRepository.count() == 0 && orderRepository.count() > 0) {
+                transactionTemplate.executeWithoutResult(status -> rebuild());
+            }
+        } catch (Exception e) {
+            // Status changes may fill the tables before the retry, so it must not rely on count() == 0
+            initializationPending = true;
+            System.err.println(">>> Sales aggregate initialization failed, retrying later: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Retry a failed initial load. A full rebuild is still right even if status changes
+     * have been applied since, because it recomputes everything from the orders.
+     */
+    @Scheduled(fixedDelayString = "${order.analytics.init-retry-ms:60000}")
+    public void retryInitialization() {
+        if (!initializationPending) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> rebuild());
+            initializationPending = false;
+        } catch (Exception e) {
+            System.err.println(">>> Sales aggregate initialization retry failed: " + e.getMessage());
+        }
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+    }
+
+    private OrderItem copyOf(OrderItem item) {
+        OrderItem copy = new OrderItem();
+        copy.setProductId(item.getProductId());
+        copy.setProductName(item.getProductName());
+        copy.setQuantity(item.getQuantity());
+        copy.setTotalPrice(item.getTotalPrice());
+        return copy;
+    }
+}
@@ -3,7 +3,7 @@ package com.ecommerce.order_service;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "order.id.node-id=0")
 class OrderServiceApplicationTests {
 
 	@Test
@@ -0,0 +1,114 @@
+package com.ecommerce.order_service.service;
+
+import com.ecommerce.order_service.dto.ProductSalesTotal;
+import com.ecommerce.order_service.model.DailySales;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The first start with existing orders must load the sales aggregates from them
+ * (initializeAggregates runs on ApplicationReady; here it is called again after the orders exist).
+ */
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.discovery.enabled=false",
+        "spring.jpa.show-sql=false",
+        "order.id.node-id=0",
+        "order.archive.enabled=false"
+})
+class SalesAnalyticsInitializationTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 14);
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void embeddedDatabase(DynamicPropertyRegistry registry) {
+        try {
+            postgres = EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start embedded Postgres", e);
+        }
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @BeforeEach
+    void existingOrdersWithoutAggregates() {
+        jdbcTemplate.update("DELETE FROM sales_daily_product");
+        jdbcTemplate.update("DELETE FROM sales_daily");
+        jdbcTemplate.update("DELETE FROM order_items");
+        jdbcTemplate.update("DELETE FROM orders");
+
+        insertOrder(1, "CONFIRMED", "30.00", new long[][]{{100, 2, 1000}, {200, 1, 1000}});
+        insertOrder(2, "DELIVERED", "15.00", new long[][]{{100, 1, 1500}});
+        // Not sales: never confirmed, or cancelled
+        insertOrder(3, "PENDING", "99.00", new long[][]{{100, 9, 1100}});
+        insertOrder(4, "CANCELLED", "50.00", new long[][]{{200, 5, 1000}});
+    }
+
+    @Test
+    void initializationLoadsAggregatesFromExistingOrders() {
+        salesAnalyticsService.initializeAggregates();
+
+        List<DailySales> days = salesAnalyticsService.getDailySales(DAY, DAY);
+        assertEquals(1, days.size());
+        assertEquals(0, new BigDecimal("45.00").compareTo(days.get(0).getRevenue()));
+        assertEquals(4L, days.get(0).getUnits());
+        assertEquals(2L, days.get(0).getOrderCount());
+
+        List<ProductSalesTotal> top = salesAnalyticsService.getTopProducts(DAY, DAY, 10);
+        assertEquals(2, top.size());
+        assertEquals(100L, top.get(0).getProductId());
+        assertEquals(3L, top.get(0).getUnits());
+    }
+
+    /**
+     * @param lines {productId, quantity, unit price in cents}
+     */
+    private void insertOrder(long id, String status, String total, long[][] lines) {
+        jdbcTemplate.update("INSERT INTO orders (id, user_email, status, total_amount, created_at) VALUES (?, ?, ?, ?, ?)",
+                id, "user" + id + "@example.com", status, new BigDecimal(total),
+                Timestamp.valueOf(LocalDateTime.of(DAY, LocalTime.NOON)));
+        for (int i = 0; i < lines.length; i++) {
+            long[] line = lines[i];
+            BigDecimal unitPrice = BigDecimal.valueOf(line[2], 2);
+            jdbcTemplate.update("INSERT INTO order_items (id, order_id, product_id, product_name, quantity, unit_price, total_price) " +
+                            "VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    id * 100 + i, id, line[0], "Product " + line[0], (int) line[1], unitPrice,
+                    unitPrice.multiply(BigDecimal.valueOf(line[1])));
+        }
+    }
+}
@@ -3,8 +3,12 @@ package com.ecommerce.product_catalog_service;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @EnableDiscoveryClient
+@EnableFeignClients
+@EnableScheduling
 @SpringBootApplication
 public class ProductCatalogServiceApplication {
 
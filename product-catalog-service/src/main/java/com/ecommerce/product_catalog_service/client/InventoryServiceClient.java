@@ -0,0 +1,24 @@
+package com.ecommerce.product_catalog_service.client;
+
+import com.ecommerce.product_catalog_service.dto.InventoryAvailability;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+
+/**
+ * Feign client to communicate with Inventory Service
+ */
+@FeignClient(name = "inventory-service")
+public interface InventoryServiceClient {
+
+    /**
+     * Stock status of products changed after (updatedSince, afterProductId), oldest first.
+     * @param updatedSince ISO date-time, e.g. 2024-01-01T00:00:00
+     */
+    @GetMapping("/api/v1/inventory/availability")
+    List<InventoryAvailability> getAvailabilityChanges(@RequestParam("updatedSince") String updatedSince,
+                                                       @RequestParam("afterProductId") Long afterProductId,
+                                                       @RequestParam("limit") int limit);
+}
@@ -0,0 +1,72 @@
+package com.ecommerce.product_catalog_service.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Search schema that Hibernate's ddl-auto can't express, created idempotently at startup:
+ * - products.search_vector: a STORED generated tsvector (name weighted above description).
+ *   Postgres recomputes it in the same statement as every insert/update, so search sees
+ *   a product change as soon as it commits - there is no separate index to keep in sync.
+ * - A GIN index on search_vector for the full-text match.
+ * - pg_trgm plus a trigram GIN index on lower(name), used for typo-tolerant matching.
+ *   Creating the extension needs privileges; without it search still works, just without typo tolerance.
+ * Also aligns products_seq with IDs issued while products.id was an identity column.
+ */
+@Component
+public class CatalogSchemaInitializer implements ApplicationRunner {
+
+    public static final String SEARCH_INDEX = "idx_products_search";
+    public static final String NAME_TRIGRAM_INDEX = "idx_products_name_trgm";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile boolean trigramAvailable;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        initialize();
+    }
+
+    /**
+     * Create whatever part of the search schema is missing
+     */
+    public void initialize() {
+        alignProductSequence();
+        jdbcTemplate.execute("ALTER TABLE products ADD COLUMN IF NOT EXISTS search_vector tsvector " +
+                "GENERATED ALWAYS AS (" +
+                "setweight(to_tsvector('english', coalesce(name, '')), 'A') || " +
+                "setweight(to_tsvector('english', coalesce(description, '')), 'B')) STORED");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + SEARCH_INDEX +
+                " ON products USING GIN (search_vector)");
+
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + NAME_TRIGRAM_INDEX +
+                    " ON products USING GIN (lower(name) gin_trgm_ops)");
+            trigramAvailable = true;
+        } catch (Exception e) {
+            trigramAvailable = false;
+            System.err.println(">>> pg_trgm unavailable, product search runs without typo tolerance: " + e.getMessage());
+        }
+        System.out.println(">>> Product search schema ready (typo tolerance " + (trigramAvailable ? "on" : "off") + ")");
+    }
+
+    /**
+     * Hibernate's pooled optimizer may hand out up to allocationSize IDs below the sequence value,
+     * so keep the sequence at least that far past the highest existing ID. Never moves it backwards.
+     */
+    private void alignProductSequence() {
+        jdbcTemplate.execute("SELECT setval('products_seq', GREATEST(" +
+                "(SELECT last_value FROM products_seq), " +
+                "(SELECT COALESCE(MAX(id), 0) FROM products) + 50))");
+    }
+
+    public boolean isTrigramAvailable() {
+        return trigramAvailable;
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.product_catalog_service.controller;
+
+import com.ecommerce.product_catalog_service.model.Category;
+import com.ecommerce.product_catalog_service.repository.CategoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST Controller for the category tree products are filed under
+ */
+@RestController
+@RequestMapping("/api/v1/categories")
+public class CategoryController {
+
+    private static final int MAX_NAME_LENGTH = 100;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    /**
+     * Get all categories; the client builds the tree from parentId
+     * @return List of categories, ordered by name
+     */
+    @GetMapping
+    public ResponseEntity<List<Category>> getAllCategories() {
+        return ResponseEntity.ok(categoryRepository.findAll(Sort.by("name")));
+    }
+
+    /**
+     * Create a category (Admin only)
+     * @param category Name and optional parentId
+     * @param userRoles User roles from JWT
+     * @return Created category
+     */
+    @PostMapping
+    public ResponseEntity<?> createCategory(
+            @RequestBody Category category,
+            @RequestHeader(value = "X-Authenticated-User-Roles", defaultValue = "") String userRoles) {
+
+        if (!userRoles.contains("ROLE_ADMIN")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Admin access required"));
+        }
+
+        String name = category.getName() == null ? "" : category.getName().trim();
+        if (name.isEmpty() || name.length() > MAX_NAME_LENGTH) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "name is required (at most " + MAX_NAME_LENGTH + " characters)"));
+        }
+        if (categoryRepository.existsByNameIgnoreCase(name)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Category '" + name + "' already exists"));
+        }
+        if (category.getParentId() != null && !categoryRepository.existsById(category.getParentId())) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Parent category " + category.getParentId() + " not found"));
+        }
+
+        // Parents must exist first, so the tree can't get a cycle
+        Category newCategory = new Category();
+        newCategory.setName(name);
+        newCategory.setParentId(category.getParentId());
+        Category saved = categoryRepository.save(newCategory);
+        System.out.println(">>> Category created: " + saved.getName() + " (" + saved.getId() + ")");
+        return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+    }
+}
@@ -1,14 +1,52 @@
 package com.ecommerce.product_catalog_service.controller;
 
-import com.ecommerce.product_catalog_service.repository.ProductRepository;
+import com.ecommerce.product_catalog_service.dto.FacetedProductPage;
+import com.ecommerce.product_catalog_service.dto.ProductImportReport;
+import com.ecommerce.product_catalog_service.dto.ProductPage;
+import com.ecommerce.product_catalog_service.dto.ProductSearchHit;
+import com.ecommerce.product_catalog_service.dto.ProductSuggestion;
+import com.ecommerce.product_catalog_service.model.ProductAttribute;
+import com.ecommerce.product_catalog_service.model.ProductAvailability;
+import com.ecommerce.product_catalog_service.model.ProductChange;
+import com.ecommerce.product_catalog_service.repository.ProductAttributeRepository;
 import com.ecommerce.product_catalog_service.model.Product;
+import com.ecommerce.product_catalog_service.service.AvailabilityProjection;
+import com.ecommerce.product_catalog_service.service.ProductCache;
+import com.ecommerce.product_catalog_service.service.ProductChangeFeed;
+import com.ecommerce.product_catalog_service.service.ProductFacetIndex;
+import com.ecommerce.product_catalog_service.service.ProductImportService;
+import com.ecommerce.product_catalog_service.service.ProductListingService;
+import com.ecommerce.product_catalog_service.service.ProductSearchService;
+import com.ecommerce.product_catalog_service.service.ProductService;
+import com.ecommerce.product_catalog_service.service.ProductSuggestService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 /**
  * This is our Controller class, which exposes our REST API endpoints.
@@ -19,9 +57,43 @@ import java.util.Optional;
 @RequestMapping("/api/v1/products")
 public class ProductController {
 
-    // We use @Autowired to ask Spring to inject an instance of our ProductRepository.
+    private static final int MAX_BATCH_SIZE = 500;
+
+    @Autowired
+    private ProductListingService productListingService;
+
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductSuggestService productSuggestService;
+
     @Autowired
-    private ProductRepository productRepository;
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductChangeFeed productChangeFeed;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private ProductAttributeRepository productAttributeRepository;
+
+    @Autowired
+    private AvailabilityProjection availabilityProjection;
+
+    @Value("${catalog.http-cache.max-age-seconds:60}")
+    private long cacheMaxAgeSeconds;
+
+    @Value("${catalog.http-cache.stale-while-revalidate-seconds:300}")
+    private long cacheStaleWhileRevalidateSeconds;
 
     /**
      * This method handles HTTP POST requests to /api/v1/products.
@@ -39,57 +111,354 @@ public class ProductController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(null);
         }
-        Product savedProduct = productRepository.save(product);
+        Product savedProduct = productService.createProduct(product);
         return new ResponseEntity<>(savedProduct, HttpStatus.CREATED);
     }
 
+    /**
+     * This method handles HTTP POST requests to /api/v1/products/import (Admin only).
+     * Bulk create-or-update keyed by sku, for onboarding a supplier catalog in one request.
+     * The body is NDJSON (application/x-ndjson, one product per line) or a JSON array of
+     * {sku, name, description, price, categoryId, brand}; it is streamed, not loaded whole.
+     * Stock is not imported: it is owned by inventory-service.
+     * @return How many rows were created, updated, unchanged or failed, with the first failures.
+     */
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> importProducts(InputStream body,
+                                            @RequestHeader(value = "X-Authenticated-User-Roles", defaultValue = "") String userRole){
+        if (!userRole.contains("ROLE_ADMIN")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Admin access required"));
+        }
+        ProductImportReport report = productImportService.importProducts(body);
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * This method handles HTTP GET requests to /api/v1/products?size=50&sort=price,desc&fields=name,price.
+     * The catalog is listed one page at a time with keyset pagination instead of all at once.
+     * The body is still a JSON array; the cursor for the next page comes back in the X-Next-Cursor
+     * header and as a Link rel="next" URL. Both are absent on the last page.
+     * With ids=1,2,3 it is a multi-get instead: the same as /batch, no paging.
+     * @param cursor The X-Next-Cursor value from the previous page (omit for the first page).
+     * @param size Page size (at most 200).
+     * @param sort id, price or name, optionally followed by ,asc or ,desc.
+     * @param fields Only return these fields (id is always included), e.g. fields=name,price.
+     * @param ids Look up exactly these products (at most MAX_BATCH_SIZE).
+     * @return One page of products, or 400 BAD REQUEST for an invalid sort, field or cursor.
+     */
     @GetMapping
-    public List<Product> getAllProducts(){
-        return productRepository.findAll();
+    public ResponseEntity<?> getAllProducts(@RequestParam(required = false) List<Long> ids,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "" + ProductListingService.DEFAULT_PAGE_SIZE) int size,
+                                            @RequestParam(defaultValue = "id") String sort,
+                                            @RequestParam(required = false) List<String> fields){
+        if (ids != null) {
+            return getProductsByIds(ids);
+        }
+
+        ProductPage page;
+        try {
+            page = productListingService.getPage(sort, cursor, size, fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            UriComponentsBuilder next = UriComponentsBuilder.fromPath("/api/v1/products")
+                    .queryParam("cursor", page.getNextCursor())
+                    .queryParam("size", size)
+                    .queryParam("sort", sort);
+            if (fields != null && !fields.isEmpty()) {
+                next.queryParam("fields", String.join(",", fields));
+            }
+            response.header("X-Next-Cursor", page.getNextCursor())
+                    .header(HttpHeaders.LINK, "<" + next.build().toUriString() + ">; rel=\"next\"");
+        }
+        return response.body(page.getItems());
+    }
+
+    /**
+     * This method handles HTTP GET requests to /api/v1/products/search?q=lapto&minPrice=100&maxPrice=500.
+     * Words match as prefixes and, for product names, despite small typos. Most relevant first.
+     * @param q The search text.
+     * @param minPrice Optional lowest price.
+     * @param maxPrice Optional highest price.
+     * @param page Zero-based result page.
+     * @param size Results per page (at most 100).
+     * @return The matching products with their relevance score.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<ProductSearchHit>> searchProducts(@RequestParam String q,
+                                                                 @RequestParam(required = false) BigDecimal minPrice,
+                                                                 @RequestParam(required = false) BigDecimal maxPrice,
+                                                                 @RequestParam(defaultValue = "0") int page,
+                                                                 @RequestParam(defaultValue = "20") int size){
+        return ResponseEntity.ok(productSearchService.search(q, minPrice, maxPrice, page, size));
+    }
+
+    /**
+     * This method handles HTTP POST requests to /api/v1/products/search/rebuild (Admin only).
+     * Recreates any missing search schema and rebuilds the search indexes without blocking writes.
+     * @return Which indexes were rebuilt, over how many products, and how long it took.
+     */
+    @PostMapping("/search/rebuild")
+    public ResponseEntity<?> rebuildSearchIndex(@RequestHeader(value = "X-Authenticated-User-Roles", defaultValue = "") String userRole){
+        if (!userRole.contains("ROLE_ADMIN")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Admin access required"));
+        }
+        return ResponseEntity.ok(productSearchService.rebuild());
+    }
+
+    /**
+     * This method handles HTTP GET requests to /api/v1/products/suggest?q=wire.
+     * Autocomplete for the search box, answered from memory: products whose name, or a word
+     * of it, starts with q, most viewed first.
+     * @param q What the customer has typed so far.
+     * @param limit Maximum number of suggestions (capped at catalog.suggest.top-k).
+     * @return The suggested products' IDs and names.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSuggestion>> suggestProducts(@RequestParam String q,
+                                                                   @RequestParam(defaultValue = "10") int limit){
+        return ResponseEntity.ok(productSuggestService.suggest(q, limit));
+    }
+
+    /**
+     * This method handles HTTP GET requests to /api/v1/products/suggest/stats (Admin only).
+     * @return Size of the suggest index and its estimated memory use per million products/keys.
+     */
+    @GetMapping("/suggest/stats")
+    public ResponseEntity<?> getSuggestStats(@RequestHeader(value = "X-Authenticated-User-Roles", defaultValue = "") String userRole){
+        if (!userRole.contains("ROLE_ADMIN")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Admin access required"));
+        }
+        return ResponseEntity.ok(productSuggestService.stats());
+    }
+
+    /**
+     * This method handles HTTP GET requests to
+     * /api/v1/products/filter?category=3&brand=acme&attr=color:red&range=screen_inches:13:16&maxPrice=900.
+     * Faceted navigation, answered from the in-memory facet index instead of the database.
+     * Several values of one facet match any of them (brand=acme&brand=globex); different facets must all match.
+     * A category also matches the products of its subcategories.
+     * @param category Category IDs.
+     * @param brand Brands (case-insensitive).
+     * @param attr String or boolean attribute values as name:value (case-insensitive).
+     * @param range Numeric attribute ranges as name:min:max; leave min or max empty for an open end.
+     * @param minPrice Optional lowest price.
+     * @param maxPrice Optional highest price.
+     * @param page Zero-based result page.
+     * @param size Results per page (at most 100).
+     * @return The page of products, the total, and per facet its top values with how many products each would give.
+     */
+    @GetMapping("/filter")
+    public ResponseEntity<?> filterProducts(@RequestParam(required = false) List<Long> category,
+                                            @RequestParam(required = false) List<String> brand,
+                                            @RequestParam(required = false) List<String> attr,
+                                            @RequestParam(required = false) List<String> range,
+                                            @RequestParam(required = false) BigDecimal minPrice,
+                                            @RequestParam(required = false) BigDecimal maxPrice,
+                                            @RequestParam(defaultValue = "0") int page,
+                                            @RequestParam(defaultValue = "20") int size){
+        Map<String, Set<String>> selected = new LinkedHashMap<>();
+        Map<String, double[]> ranges = new LinkedHashMap<>();
+        try {
+            if (category != null && !category.isEmpty()) {
+                selected.put(ProductFacetIndex.CATEGORY, category.stream().map(String::valueOf)
+                        .collect(Collectors.toCollection(LinkedHashSet::new)));
+            }
+            if (brand != null && !brand.isEmpty()) {
+                selected.put(ProductFacetIndex.BRAND, new LinkedHashSet<>(brand));
+            }
+            if (attr != null) {
+                for (String selection : attr) {
+                    int separator = selection.indexOf(':');
+                    if (separator <= 0) {
+                        throw new IllegalArgumentException("Invalid attr '" + selection + "', expected name:value");
+                    }
+                    selected.computeIfAbsent(ProductFacetIndex.ATTRIBUTE_PREFIX + selection.substring(0, separator),
+                            facet -> new LinkedHashSet<>()).add(selection.substring(separator + 1));
+                }
+            }
+            if (range != null) {
+                for (String selection : range) {
+                    String[] parts = selection.split(":", -1);
+                    if (parts.length != 3 || parts[0].isEmpty()) {
+                        throw new IllegalArgumentException("Invalid range '" + selection + "', expected name:min:max");
+                    }
+                    ranges.put(parts[0], new double[]{rangeBound(parts[1]), rangeBound(parts[2])});
+                }
+            }
+
+            FacetedProductPage result = productFacetIndex.filter(selected, ranges, minPrice, maxPrice, page, size);
+            result.setProducts(availabilityProjection.withAvailability(
+                    inRequestedOrder(result.getProductIds(), productCache.getAll(result.getProductIds()))));
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * This method handles HTTP GET requests to /api/v1/products/facets/stats (Admin only).
+     * @return Size of the facet index and its estimated memory use.
+     */
+    @GetMapping("/facets/stats")
+    public ResponseEntity<?> getFacetStats(@RequestHeader(value = "X-Authenticated-User-Roles", defaultValue = "") String userRole){
+        if (!userRole.contains("ROLE_ADMIN")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Admin access required"));
+        }
+        return ResponseEntity.ok(productFacetIndex.stats());
+    }
+
+    /**
+     * This method handles HTTP GET requests to /api/v1/products/availability/stats (Admin only).
+     * @return How far the availability projection has caught up with inventory-service.
+     */
+    @GetMapping("/availability/stats")
+    public ResponseEntity<?> getAvailabilityStats(@RequestHeader(value = "X-Authenticated-User-Roles", defaultValue = "") String userRole){
+        if (!userRole.contains("ROLE_ADMIN")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Admin access required"));
+        }
+        return ResponseEntity.ok(availabilityProjection.stats());
+    }
+
+    /**
+     * This method handles HTTP GET requests to /api/v1/products/batch?ids=1,2,3.
+     * It lets other services resolve many products with one call and one findAllById query.
+     * Unknown IDs are simply left out of the result.
+     * @param ids The product IDs to look up (at most MAX_BATCH_SIZE).
+     * @return The products that exist, or 400 BAD REQUEST if too many IDs were requested.
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<List<Product>> getProductsByIds(@RequestParam List<Long> ids){
+        if (ids.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(availabilityProjection.withAvailability(productCache.getAll(ids)));
+    }
+
+    /**
+     * This method handles HTTP GET requests to /api/v1/products/changes?since=0&limit=500&waitSeconds=20.
+     * It is the product change feed: creates, updates (name, price, category, brand, attributes) and deletions, oldest first.
+     * Consumers pass the ID of the last change they processed as 'since'.
+     * With waitSeconds it is a long-poll: if nothing is new yet, the response waits for the next change.
+     * @param since The last change ID already processed (0 to start from the beginning).
+     * @param limit Maximum number of changes to return (at most 1000).
+     * @param waitSeconds How long to wait for a change if there is none yet (0 to 30).
+     * @return The next changes after 'since', or an empty list if none arrived in time.
+     */
+    @GetMapping("/changes")
+    public DeferredResult<ResponseEntity<List<ProductChange>>> getProductChanges(@RequestParam(defaultValue = "0") Long since,
+                                                                                 @RequestParam(defaultValue = "500") int limit,
+                                                                                 @RequestParam(defaultValue = "0") int waitSeconds){
+        if (limit < 1 || limit > ProductChangeFeed.MAX_PAGE_SIZE
+                || waitSeconds < 0 || waitSeconds > ProductChangeFeed.MAX_WAIT_SECONDS) {
+            DeferredResult<ResponseEntity<List<ProductChange>>> invalid = new DeferredResult<>();
+            invalid.setResult(ResponseEntity.badRequest().build());
+            return invalid;
+        }
+        return productChangeFeed.poll(since, limit, waitSeconds);
+    }
+
+    /**
+     * This method handles HTTP GET requests to /api/v1/products/changes/stream?since=0.
+     * The change feed as server-sent events ("product-change", id = feed position), starting after
+     * 'since' and staying open for new changes. A reconnecting EventSource resumes from Last-Event-ID.
+     * @param since The last change ID already processed.
+     * @param lastEventId Sent by EventSource on reconnect; takes precedence over 'since'.
+     */
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamProductChanges(@RequestParam(defaultValue = "0") Long since,
+                                           @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId){
+        return productChangeFeed.subscribe(lastEventId != null ? lastEventId : since);
+    }
+
+    /**
+     * This method handles HTTP GET requests to /api/v1/products/changes/head.
+     * New consumers that load current state some other way start following the feed from here.
+     * @return The position of the latest change.
+     */
+    @GetMapping("/changes/head")
+    public ResponseEntity<Map<String, Long>> getProductChangesHead(){
+        return ResponseEntity.ok(Map.of("position", productChangeFeed.head()));
     }
 
     /**
      * This method handles HTTP GET requests to /api/v1/products/{id}.
      * The {id} is a path variable.
+     * stockQuantity and inStock come from the availability projection of inventory-service.
+     * Responses carry a strong ETag (changes with every update of the product or its stock) and a public
+     * Cache-Control with max-age and stale-while-revalidate, so the gateway, browsers and a CDN
+     * can reuse them. If-None-Match with the current ETag is answered with 304 NOT MODIFIED.
      * @param id The product ID, captured from the URL path.
+     * @param ifNoneMatch ETag(s) of copies the client already has.
      * @return A ResponseEntity containing the found product with a 200 OK status,
      * or a 404 NOT FOUND status if the product doesn't exist.
      */
 
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id){
-        Optional<Product> productOptional = productRepository.findById(id);
-        if(productOptional.isPresent()){
-            return ResponseEntity.ok(productOptional.get());
-        }
-        else{
+    public ResponseEntity<Product> getProductById(@PathVariable Long id,
+                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
+        // Served from the in-process cache; a revalidation is answered 304 without sending the product
+        Optional<Product> productOptional = productCache.get(id).map(availabilityProjection::withAvailability);
+        if (productOptional.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
+
+        Product product = productOptional.get();
+        String eTag = eTag(product);
+        productSuggestService.recordView(id);
+        if (ifNoneMatch != null && eTagMatches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .cacheControl(productCacheControl())
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(productCacheControl());
+        LocalDateTime lastModified = lastModified(product);
+        if (lastModified != null) {
+            response.lastModified(lastModified.atZone(ZoneId.systemDefault()));
+        }
+        return response.body(product);
     }
 //    return productOptional.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
 
     /**
      * This method handles HTTP PUT requests to /api/v1/products/{id} for updating a product.
      * @PutMapping marks this method to handle PUT requests for a specific resource.
+     * stockQuantity/inStock in the body are ignored: stock is changed through inventory-service.
      * @param id The ID of the product to update, from the URL path.
      * @param productDetails The new product data sent in the request body.
      * @return A ResponseEntity containing the updated product with a 200 OK status,
-     * or a 404 NOT FOUND status if the product doesn't exist.
+     * a 404 NOT FOUND status if the product doesn't exist,
+     * or a 409 CONFLICT status if it was changed concurrently.
      */
     @PutMapping("/{id}")
     public ResponseEntity<Product> updateProductById(@PathVariable Long id,@RequestBody Product productDetails){
-        Optional<Product> productOptional = productRepository.findById(id);
+        Optional<Product> productOptional;
+        try {
+            productOptional = productService.updateProduct(id, productDetails);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
 
         if(productOptional.isPresent()){
-            Product existingProduct = productOptional.get();
-
-            existingProduct.setName(productDetails.getName());
-            existingProduct.setDescription(productDetails.getDescription());
-            existingProduct.setPrice(productDetails.getPrice());
-            existingProduct.setStockQuantity(productDetails.getStockQuantity());
-
-            Product updateProduct = productRepository.save(existingProduct);
-            return ResponseEntity.ok(updateProduct);
+            Product product = availabilityProjection.withAvailability(productOptional.get());
+            return ResponseEntity.ok().eTag(eTag(product)).body(product);
         }
         else{
             return ResponseEntity.notFound().build();
@@ -106,10 +475,113 @@ public class ProductController {
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteById(@PathVariable Long id){
-        productRepository.deleteById(id);
+        productService.deleteProduct(id);
 
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * This method handles HTTP GET requests to /api/v1/products/{id}/attributes.
+     * @return The product's attributes as a name to value object, or 404 NOT FOUND.
+     */
+    @GetMapping("/{id}/attributes")
+    public ResponseEntity<Map<String, Object>> getProductAttributes(@PathVariable Long id){
+        if (productCache.get(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        for (ProductAttribute attribute : productAttributeRepository.findByProductIdOrderByName(id)) {
+            attributes.put(attribute.getName(), attribute.getValue());
+        }
+        return ResponseEntity.ok(attributes);
+    }
+
+    /**
+     * This method handles HTTP PUT requests to /api/v1/products/{id}/attributes (Admin only).
+     * Replaces all attributes, e.g. {"color": "red", "screen_inches": 15.6, "wireless": true}.
+     * The JSON type of each value decides the attribute's type: strings and booleans are
+     * filtered by value, numbers by range.
+     * @return The stored attributes, 400 BAD REQUEST for an invalid name or value, or 404 NOT FOUND.
+     */
+    @PutMapping("/{id}/attributes")
+    public ResponseEntity<?> replaceProductAttributes(@PathVariable Long id,
+                                                      @RequestBody Map<String, Object> attributes,
+                                                      @RequestHeader(value = "X-Authenticated-User-Roles", defaultValue = "") String userRole){
+        if (!userRole.contains("ROLE_ADMIN")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Admin access required"));
+        }
+        try {
+            Optional<List<ProductAttribute>> saved = productService.replaceAttributes(id, attributes);
+            if (saved.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            Map<String, Object> result = new TreeMap<>();
+            saved.get().forEach(attribute -> result.put(attribute.getName(), attribute.getValue()));
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private CacheControl productCacheControl() {
+        return CacheControl.maxAge(Duration.ofSeconds(cacheMaxAgeSeconds))
+                .staleWhileRevalidate(Duration.ofSeconds(cacheStaleWhileRevalidateSeconds))
+                .cachePublic();
+    }
+
+    private static double rangeBound(String bound) {
+        if (bound.isBlank()) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(bound);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid range bound '" + bound + "'");
+        }
+    }
+
+    private static List<Product> inRequestedOrder(List<Long> ids, List<Product> products) {
+        Map<Long, Product> byId = new HashMap<>();
+        products.forEach(product -> byId.put(product.getId(), product));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Changes with every update of the product and every change of its stock status:
+     * "id-version", plus "-quantity" once inventory reported on it, with an "x" when it can't be sold
+     */
+    private static String eTag(Product product) {
+        String tag = product.getId() + "-" + product.getVersion();
+        if (product.getStockQuantity() != null) {
+            tag += "-" + product.getStockQuantity() + (Boolean.TRUE.equals(product.getInStock()) ? "" : "x");
+        }
+        return "\"" + tag + "\"";
+    }
+
+    private LocalDateTime lastModified(Product product) {
+        LocalDateTime lastModified = product.getUpdatedAt();
+        Optional<ProductAvailability> stock = availabilityProjection.get(product.getId());
+        if (stock.isPresent() && (lastModified == null || stock.get().getInventoryUpdatedAt().isAfter(lastModified))) {
+            lastModified = stock.get().getInventoryUpdatedAt();
+        }
+        return lastModified;
+    }
+
+    private static boolean eTagMatches(String ifNoneMatch, String eTag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            // GET uses weak comparison, so a W/ copy of our tag (e.g. after gzip) still matches
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(eTag) || tag.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
     // In ProductController.java, add this new method
 
     @GetMapping("/whoami")
@@ -0,0 +1,88 @@
+package com.ecommerce.product_catalog_service.dto;
+
+import com.ecommerce.product_catalog_service.model.Product;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of a faceted filter (GET /api/v1/products/filter).
+ * facets maps each facet ("category", "brand", "attr:color"...) to its most common values
+ * and how many products would match with that value selected.
+ */
+@Data
+@NoArgsConstructor
+public class FacetedProductPage {
+
+    private long total;
+    private int page;
+    private int size;
+    private List<Product> products;
+    private Map<String, Map<String, Integer>> facets;
+    private long tookMicros;
+
+    /**
+     * Filled by the facet index; the controller resolves them into products
+     */
+    @JsonIgnore
+    private List<Long> productIds;
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public List<Product> getProducts() {
+        return products;
+    }
+
+    public void setProducts(List<Product> products) {
+        this.products = products;
+    }
+
+    public Map<String, Map<String, Integer>> getFacets() {
+        return facets;
+    }
+
+    public void setFacets(Map<String, Map<String, Integer>> facets) {
+        this.facets = facets;
+    }
+
+    public long getTookMicros() {
+        return tookMicros;
+    }
+
+    public void setTookMicros(long tookMicros) {
+        this.tookMicros = tookMicros;
+    }
+
+    public List<Long> getProductIds() {
+        return productIds;
+    }
+
+    public void setProductIds(List<Long> productIds) {
+        this.productIds = productIds;
+    }
+}
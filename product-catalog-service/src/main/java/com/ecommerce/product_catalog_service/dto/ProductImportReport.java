@@ -0,0 +1,128 @@
+package com.ecommerce.product_catalog_service.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Rows are numbered from 1 in input order.
+ * Only the first MAX_FAILURES failures are listed; failed counts them all.
+ * aborted means the input could not be read past 'received' rows - everything before was applied.
+ */
+@Data
+public class ProductImportReport {
+
+    public static final int MAX_FAILURES = 100;
+
+    private int received;
+    private int created;
+    private int updated;
+    private int unchanged;
+    private int failed;
+    private boolean aborted;
+    private long tookMs;
+    private List<Failure> failures = new ArrayList<>();
+
+    public void addFailure(int row, String sku, String error) {
+        failed++;
+        if (failures.size() < MAX_FAILURES) {
+            failures.add(new Failure(row, sku, error));
+        }
+    }
+
+    public void addCounts(int created, int updated, int unchanged) {
+        this.created += created;
+        this.updated += updated;
+        this.unchanged += unchanged;
+    }
+
+    public int getReceived() {
+        return received;
+    }
+
+    public void setReceived(int received) {
+        this.received = received;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    public void setUnchanged(int unchanged) {
+        this.unchanged = unchanged;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    public void setAborted(boolean aborted) {
+        this.aborted = aborted;
+    }
+
+    public long getTookMs() {
+        return tookMs;
+    }
+
+    public void setTookMs(long tookMs) {
+        this.tookMs = tookMs;
+    }
+
+    public List<Failure> getFailures() {
+        return failures;
+    }
+
+    public void setFailures(List<Failure> failures) {
+        this.failures = failures;
+    }
+
+    @Data
+    public static class Failure {
+        private int row;
+        private String sku;
+        private String error;
+
+        public Failure(int row, String sku, String error) {
+            this.row = row;
+            this.sku = sku;
+            this.error = error;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public String getSku() {
+            return sku;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.product_catalog_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of the product listing.
+ * items holds Product entities, or field maps when a fields= projection was requested.
+ * nextCursor is opaque to clients - pass it back as ?cursor= to get the next page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPage {
+
+    private List<?> items;
+    private String nextCursor;
+
+    public List<?> getItems() {
+        return items;
+    }
+
+    public void setItems(List<?> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.product_catalog_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One autocomplete suggestion for the search box
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSuggestion {
+
+    private Long id;
+    private String name;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.product_catalog_service.model;
+
+public enum AttributeType {
+    STRING,    // e.g. color=red - filtered by value
+    NUMBER,    // e.g. screen_inches=15.6 - filtered by range
+    BOOLEAN    // e.g. wireless=true - filtered by value
+}
@@ -0,0 +1,52 @@
+package com.ecommerce.product_catalog_service.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * A node of the category tree (e.g. Electronics > Audio > Headphones).
+ * Products reference their most specific category; filtering on a category
+ * also matches products in all of its subcategories.
+ */
+@Entity
+@Table(name = "categories")
+@Data
+public class Category {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 100)
+    private String name;
+
+    /**
+     * Parent category, null for a top-level category
+     */
+    @Column(name = "parent_id")
+    private Long parentId;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(Long parentId) {
+        this.parentId = parentId;
+    }
+}
@@ -1,13 +1,22 @@
 package com.ecommerce.product_catalog_service.model;
 
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
 import lombok.Data; // Import Lombok's @Data annotation
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 /**
  * This is our Entity class.
@@ -17,27 +26,89 @@ import java.math.BigDecimal;
  * toString(), equals(), and hashCode() methods for us. It keeps our code clean.
  */
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        // Keyset pagination of the listing by price or name (id breaks ties)
+        @Index(name = "idx_products_price_id", columnList = "price, id"),
+        @Index(name = "idx_products_name_id", columnList = "name, id")
+})
 @Data
 public class Product {
 
     /**
      * @Id marks this field as the primary key.
      * @GeneratedValue tells JPA how the primary key is generated.
-     * GenerationType.IDENTITY means the database will automatically increment the ID for us.
+     * GenerationType.SEQUENCE with allocationSize 50 lets Hibernate reserve 50 IDs per sequence call,
+     * so it knows IDs before inserting and can send inserts in JDBC batches (IDENTITY can't).
+     * CatalogSchemaInitializer moves the sequence past IDs handed out by the old identity column.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * Supplier's stock keeping unit - the key bulk imports match existing products on.
+     */
+    @Column(unique = true, length = 64)
+    private String sku;
+
     private String name;
 
     private String description;
 
     private BigDecimal price;
 
+    /**
+     * Stock is owned by inventory-service. These are filled from the availability projection
+     * when a product is served (see AvailabilityProjection) and never stored with the product,
+     * so a stock change doesn't rewrite the catalog row. Clients can't set them.
+     * Both stay null until inventory has reported on the product.
+     */
+    @Transient
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private Integer stockQuantity;
 
+    @Transient
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Boolean inStock;
+
+    /**
+     * Most specific category (see Category); the product is also found under its parent categories
+     */
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Column(length = 100)
+    private String brand;
+
+    /**
+     * @Version makes Hibernate bump this on every update (and reject lost updates).
+     * It is also what the product's ETag is built from.
+     * Read-only in JSON: clients can't set it, and a new product must not arrive with one.
+     */
+    @Version
+    @Column(columnDefinition = "bigint not null default 0")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    @Column(name = "updated_at")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+
     public String getName() {
         return name;
     }
@@ -70,5 +141,45 @@ public class Product {
         this.stockQuantity = stockQuantity;
     }
 
+    public Boolean getInStock() {
+        return inStock;
+    }
+
+    public void setInStock(Boolean inStock) {
+        this.inStock = inStock;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getBrand() {
+        return brand;
+    }
+
+    public void setBrand(String brand) {
+        this.brand = brand;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
 
 }
\ No newline at end of file
@@ -0,0 +1,131 @@
+package com.ecommerce.product_catalog_service.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * One typed attribute of a product (color, screen size, wireless...).
+ * Exactly one of the value columns is set, matching the type.
+ */
+@Entity
+@Table(name = "product_attributes",
+        uniqueConstraints = @UniqueConstraint(name = "uk_product_attributes_product_name",
+                columnNames = {"product_id", "name"}))
+@Data
+public class ProductAttribute {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_attributes_seq")
+    @SequenceGenerator(name = "product_attributes_seq", sequenceName = "product_attributes_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false, length = 64)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private AttributeType type;
+
+    @Column(name = "string_value")
+    private String stringValue;
+
+    @Column(name = "number_value")
+    private BigDecimal numberValue;
+
+    @Column(name = "boolean_value")
+    private Boolean booleanValue;
+
+    /**
+     * Build an attribute from a JSON value: strings, numbers and booleans are supported
+     * @throws IllegalArgumentException for any other kind of value
+     */
+    public static ProductAttribute of(Long productId, String name, Object value) {
+        ProductAttribute attribute = new ProductAttribute();
+        attribute.setProductId(productId);
+        attribute.setName(name);
+        if (value instanceof String s) {
+            attribute.setType(AttributeType.STRING);
+            attribute.setStringValue(s);
+        } else if (value instanceof Boolean b) {
+            attribute.setType(AttributeType.BOOLEAN);
+            attribute.setBooleanValue(b);
+        } else if (value instanceof Number n) {
+            attribute.setType(AttributeType.NUMBER);
+            attribute.setNumberValue(new BigDecimal(n.toString()));
+        } else {
+            throw new IllegalArgumentException("Attribute '" + name + "' must be a string, number or boolean");
+        }
+        return attribute;
+    }
+
+    @JsonIgnore
+    public Object getValue() {
+        return switch (type) {
+            case STRING -> stringValue;
+            case NUMBER -> numberValue;
+            case BOOLEAN -> booleanValue;
+        };
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public AttributeType getType() {
+        return type;
+    }
+
+    public void setType(AttributeType type) {
+        this.type = type;
+    }
+
+    public String getStringValue() {
+        return stringValue;
+    }
+
+    public void setStringValue(String stringValue) {
+        this.stringValue = stringValue;
+    }
+
+    public BigDecimal getNumberValue() {
+        return numberValue;
+    }
+
+    public void setNumberValue(BigDecimal numberValue) {
+        this.numberValue = numberValue;
+    }
+
+    public Boolean getBooleanValue() {
+        return booleanValue;
+    }
+
+    public void setBooleanValue(Boolean booleanValue) {
+        this.booleanValue = booleanValue;
+    }
+}
@@ -0,0 +1,76 @@
+package com.ecommerce.product_catalog_service.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a product's stock status, copied from inventory-service by
+ * AvailabilityProjection. Inventory owns stock; nothing in the catalog writes it otherwise.
+ */
+@Entity
+@Table(name = "product_availability",
+        indexes = @Index(name = "idx_product_availability_inventory_updated", columnList = "inventory_updated_at"))
+@Data
+public class ProductAvailability {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "available_quantity", nullable = false)
+    private Integer availableQuantity;
+
+    @Column(name = "in_stock", nullable = false)
+    private Boolean inStock;
+
+    @Column(name = "low_stock", nullable = false)
+    private Boolean lowStock;
+
+    /**
+     * When inventory last changed the row - the projection's resume position
+     */
+    @Column(name = "inventory_updated_at", nullable = false)
+    private LocalDateTime inventoryUpdatedAt;
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getAvailableQuantity() {
+        return availableQuantity;
+    }
+
+    public void setAvailableQuantity(Integer availableQuantity) {
+        this.availableQuantity = availableQuantity;
+    }
+
+    public Boolean getInStock() {
+        return inStock;
+    }
+
+    public void setInStock(Boolean inStock) {
+        this.inStock = inStock;
+    }
+
+    public Boolean getLowStock() {
+        return lowStock;
+    }
+
+    public void setLowStock(Boolean lowStock) {
+        this.lowStock = lowStock;
+    }
+
+    public LocalDateTime getInventoryUpdatedAt() {
+        return inventoryUpdatedAt;
+    }
+
+    public void setInventoryUpdatedAt(LocalDateTime inventoryUpdatedAt) {
+        this.inventoryUpdatedAt = inventoryUpdatedAt;
+    }
+}
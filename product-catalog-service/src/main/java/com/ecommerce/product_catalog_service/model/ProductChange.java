@@ -0,0 +1,126 @@
+package com.ecommerce.product_catalog_service.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the product change feed (GET /api/v1/products/changes).
+ * Written in the same transaction as the product change, so consumers
+ * (e.g. cart-service repricing) never miss a committed change.
+ * Each entry carries the product's name and price after the change.
+ * Every change to the product row gets an entry, even one that leaves name and price as they were,
+ * so caches holding the whole product are invalidated too.
+ * The log is compacted: superseded entries of a product eventually disappear,
+ * the latest entry of every product (including deletions) is kept.
+ */
+@Entity
+@Table(name = "product_changes",
+        indexes = @Index(name = "idx_product_changes_product_seq", columnList = "product_id, id"))
+@Data
+public class ProductChange {
+
+    /**
+     * Feed position - consumers ask for everything after the last ID they processed
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false)
+    private ProductChangeType changeType;
+
+    private String name;
+
+    private BigDecimal price;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    /**
+     * Catalog instance that wrote the change (see ProductChangeFeed.getInstanceId), so it can
+     * skip its own entries where it already applied the change. Not part of the public feed.
+     */
+    @JsonIgnore
+    @Column(name = "origin", length = 36)
+    private String origin;
+
+    @PrePersist
+    protected void onCreate() {
+        if (changedAt == null) {
+            changedAt = LocalDateTime.now();
+        }
+    }
+
+    public static ProductChange of(Product product, ProductChangeType changeType) {
+        ProductChange change = new ProductChange();
+        change.setProductId(product.getId());
+        change.setChangeType(changeType);
+        change.setName(product.getName());
+        change.setPrice(product.getPrice());
+        return change;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public ProductChangeType getChangeType() {
+        return changeType;
+    }
+
+    public void setChangeType(ProductChangeType changeType) {
+        this.changeType = changeType;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+}
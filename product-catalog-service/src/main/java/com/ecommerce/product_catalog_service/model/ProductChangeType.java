@@ -0,0 +1,7 @@
+package com.ecommerce.product_catalog_service.model;
+
+public enum ProductChangeType {
+    CREATED,
+    UPDATED,   // name, price, category, brand or attributes changed
+    DELETED
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.product_catalog_service.repository;
+
+import com.ecommerce.product_catalog_service.model.Category;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    boolean existsByNameIgnoreCase(String name);
+}
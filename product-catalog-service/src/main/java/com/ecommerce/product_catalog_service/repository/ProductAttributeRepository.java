@@ -0,0 +1,26 @@
+package com.ecommerce.product_catalog_service.repository;
+
+import com.ecommerce.product_catalog_service.model.ProductAttribute;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProductAttributeRepository extends JpaRepository<ProductAttribute, Long> {
+
+    /**
+     * The unique (product_id, name) constraint's index serves these lookups by product
+     */
+    List<ProductAttribute> findByProductIdOrderByName(Long productId);
+
+    List<ProductAttribute> findByProductIdIn(Collection<Long> productIds);
+
+    @Modifying
+    @Query("DELETE FROM ProductAttribute a WHERE a.productId = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.product_catalog_service.repository;
+
+import com.ecommerce.product_catalog_service.model.ProductAvailability;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ProductAvailabilityRepository extends JpaRepository<ProductAvailability, Long> {
+
+    /**
+     * Latest inventory change applied so far (null if nothing was projected yet)
+     */
+    @Query("SELECT MAX(a.inventoryUpdatedAt) FROM ProductAvailability a")
+    LocalDateTime findLatestInventoryUpdate();
+}
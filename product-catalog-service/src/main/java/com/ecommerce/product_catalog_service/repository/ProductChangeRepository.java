@@ -0,0 +1,44 @@
+package com.ecommerce.product_catalog_service.repository;
+
+import com.ecommerce.product_catalog_service.model.ProductChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ProductChangeRepository extends JpaRepository<ProductChange, Long> {
+
+    /**
+     * Feed entries after the given position, oldest first.
+     * Entries are appended under an advisory lock held until commit (see ProductChangeFeed.append),
+     * so they become visible in ID order and a reader can never skip past one that is still in flight.
+     */
+    @Query("SELECT c FROM ProductChange c WHERE c.id > :since ORDER BY c.id")
+    List<ProductChange> findChangesSince(@Param("since") Long since, Pageable pageable);
+
+    /**
+     * Current head of the feed (0 if it is empty)
+     */
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM ProductChange c")
+    Long findLatestId();
+
+    /**
+     * Compaction: delete up to batchSize entries older than 'before' that a later entry
+     * for the same product supersedes. The latest entry of every product is always kept.
+     * @return Number of entries deleted
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM product_changes WHERE id IN (" +
+            "SELECT c.id FROM product_changes c WHERE c.changed_at < :before AND EXISTS (" +
+            "SELECT 1 FROM product_changes n WHERE n.product_id = c.product_id AND n.id > c.id) " +
+            "LIMIT :batchSize)", nativeQuery = true)
+    int deleteSupersededBefore(@Param("before") LocalDateTime before, @Param("batchSize") int batchSize);
+}
@@ -2,9 +2,15 @@ package com.ecommerce.product_catalog_service.repository;
 
 
 import com.ecommerce.product_catalog_service.model.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 
 /**
  * This is our Repository interface.
@@ -16,4 +22,26 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    /**
+     * [id, name] pairs in ID order, for loading in-memory indexes page by page
+     */
+    @Query("SELECT p.id, p.name FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<Object[]> findIdAndNameAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * [id, categoryId, brand, price] in ID order, for loading the facet index page by page
+     */
+    @Query("SELECT p.id, p.categoryId, p.brand, p.price FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<Object[]> findFacetValuesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT p.id, p.categoryId, p.brand, p.price FROM Product p WHERE p.id IN :ids")
+    List<Object[]> findFacetValuesByIdIn(@Param("ids") Collection<Long> ids);
+
+    List<Product> findBySkuIn(Collection<String> skus);
+
+    /**
+     * Newest and most recently changed products first, for cache warm-up
+     */
+    @Query("SELECT p FROM Product p ORDER BY p.updatedAt DESC NULLS LAST, p.id DESC")
+    List<Product> findRecentlyUpdated(Pageable pageable);
 }
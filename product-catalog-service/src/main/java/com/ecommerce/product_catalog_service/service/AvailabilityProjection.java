@@ -0,0 +1,237 @@
+package com.ecommerce.product_catalog_service.service;
+
+import com.ecommerce.product_catalog_service.client.InventoryServiceClient;
+import com.ecommerce.product_catalog_service.dto.InventoryAvailability;
+import com.ecommerce.product_catalog_service.model.Product;
+import com.ecommerce.product_catalog_service.model.ProductAvailability;
+import com.ecommerce.product_catalog_service.repository.ProductAvailabilityRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-only copy of every product's stock status, fed from inventory-service in the background,
+ * so product reads show stock without calling inventory and stock changes never write products.
+ *
+ * - Polls GET /api/v1/inventory/availability for rows changed since the newest change applied,
+ *   minus an overlap window: inventory stamps a row before its transaction commits (and its
+ *   instances' clocks differ), so a change can become visible with a slightly older timestamp.
+ *   Re-reading the window is cheap because unchanged rows are skipped.
+ * - A periodic full resync is the safety net for anything that slipped past the window
+ * - Stored in product_availability (so a restart resumes instead of reloading everything)
+ *   and held in memory for serving
+ */
+@Service
+public class AvailabilityProjection {
+
+    private static final int POLL_PAGE_SIZE = 500;
+    private static final int LOAD_PAGE_SIZE = 5000;
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO product_availability " +
+            "(product_id, available_quantity, in_stock, low_stock, inventory_updated_at) VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT (product_id) DO UPDATE SET available_quantity = EXCLUDED.available_quantity, " +
+            "in_stock = EXCLUDED.in_stock, low_stock = EXCLUDED.low_stock, " +
+            "inventory_updated_at = EXCLUDED.inventory_updated_at";
+
+    @Autowired
+    private InventoryServiceClient inventoryServiceClient;
+
+    @Autowired
+    private ProductAvailabilityRepository productAvailabilityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${catalog.availability.overlap-seconds:30}")
+    private long overlapSeconds;
+
+    @Value("${catalog.availability.full-resync-hours:24}")
+    private long fullResyncHours;
+
+    private final Map<Long, ProductAvailability> availability = new ConcurrentHashMap<>();
+
+    // Newest inventory change applied so far; null until something was projected
+    private volatile LocalDateTime watermark;
+    private volatile LocalDateTime lastFullResync;
+    private volatile LocalDateTime lastSuccessfulPoll;
+    private volatile boolean loaded;
+
+    public Optional<ProductAvailability> get(Long productId) {
+        return Optional.ofNullable(availability.get(productId));
+    }
+
+    /**
+     * A copy of the product with its stock status filled in. The copy, not the product itself,
+     * because products come from the shared ProductCache.
+     */
+    public Product withAvailability(Product product) {
+        Product copy = new Product();
+        copy.setId(product.getId());
+        copy.setSku(product.getSku());
+        copy.setName(product.getName());
+        copy.setDescription(product.getDescription());
+        copy.setPrice(product.getPrice());
+        copy.setCategoryId(product.getCategoryId());
+        copy.setBrand(product.getBrand());
+        copy.setVersion(product.getVersion());
+        copy.setUpdatedAt(product.getUpdatedAt());
+        ProductAvailability stock = availability.get(product.getId());
+        if (stock != null) {
+            copy.setStockQuantity(stock.getAvailableQuantity());
+            copy.setInStock(stock.getInStock());
+        }
+        return copy;
+    }
+
+    public List<Product> withAvailability(List<Product> products) {
+        List<Product> copies = new ArrayList<>(products.size());
+        products.forEach(product -> copies.add(withAvailability(product)));
+        return copies;
+    }
+
+    /**
+     * Load the stored projection and the position to resume polling from
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        long start = System.currentTimeMillis();
+        try {
+            int page = 0;
+            Page<ProductAvailability> rows;
+            do {
+                rows = productAvailabilityRepository.findAll(
+                        PageRequest.of(page++, LOAD_PAGE_SIZE, Sort.by("productId")));
+                rows.forEach(row -> availability.put(row.getProductId(), row));
+            } while (rows.hasNext());
+            watermark = productAvailabilityRepository.findLatestInventoryUpdate();
+            lastFullResync = LocalDateTime.now();
+            loaded = true;
+            System.out.println(">>> Availability projection loaded: " + availability.size() + " products, up to " +
+                    watermark + " in " + (System.currentTimeMillis() - start) + "ms");
+        } catch (Exception e) {
+            System.err.println(">>> Availability projection load failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Apply inventory changes made since the last poll (minus the overlap window)
+     */
+    @Scheduled(fixedDelayString = "${catalog.availability.poll-ms:5000}")
+    public synchronized void poll() {
+        if (!loaded) {
+            // Startup load failed or hasn't run yet - try again
+            load();
+            if (!loaded) {
+                return;
+            }
+        }
+
+        LocalDateTime pollStart = LocalDateTime.now();
+        boolean fullResync = lastFullResync.isBefore(pollStart.minusHours(fullResyncHours));
+        LocalDateTime since = watermark == null || fullResync ? BEGINNING : watermark.minusSeconds(overlapSeconds);
+        long afterProductId = 0;
+        int seen = 0;
+        int applied = 0;
+
+        try {
+            List<InventoryAvailability> page;
+            do {
+                page = inventoryServiceClient.getAvailabilityChanges(since.toString(), afterProductId, POLL_PAGE_SIZE);
+                applied += apply(page);
+                seen += page.size();
+                if (!page.isEmpty()) {
+                    InventoryAvailability last = page.get(page.size() - 1);
+                    since = last.getUpdatedAt();
+                    afterProductId = last.getProductId();
+                    if (watermark == null || since.isAfter(watermark)) {
+                        watermark = since;
+                    }
+                }
+            } while (page.size() == POLL_PAGE_SIZE);
+
+            if (fullResync) {
+                lastFullResync = pollStart;
+            }
+            lastSuccessfulPoll = pollStart;
+            if (applied > 0 || fullResync) {
+                System.out.println(">>> Availability projection applied " + applied + " of " + seen +
+                        " inventory changes" + (fullResync ? " (full resync)" : ""));
+            }
+        } catch (Exception e) {
+            // The watermark only moved past pages that were stored, so the next poll resumes here
+            System.err.println(">>> Availability poll failed after " + applied + " changes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * How far the projection is, for monitoring its lag behind inventory
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("loaded", loaded);
+        stats.put("products", availability.size());
+        stats.put("watermark", watermark);
+        stats.put("lastSuccessfulPoll", lastSuccessfulPoll);
+        stats.put("lastFullResync", lastFullResync);
+        stats.put("overlapSeconds", overlapSeconds);
+        return stats;
+    }
+
+    /**
+     * Store and publish the rows that differ from what is projected already
+     * @return How many rows changed
+     */
+    private int apply(List<InventoryAvailability> page) {
+        List<ProductAvailability> changed = new ArrayList<>();
+        for (InventoryAvailability row : page) {
+            ProductAvailability current = availability.get(row.getProductId());
+            if (current != null
+                    && Objects.equals(current.getAvailableQuantity(), row.getAvailableQuantity())
+                    && Objects.equals(current.getInStock(), row.getInStock())
+                    && Objects.equals(current.getLowStock(), row.getLowStock())
+                    && Objects.equals(current.getInventoryUpdatedAt(), row.getUpdatedAt())) {
+                continue;
+            }
+            ProductAvailability projected = new ProductAvailability();
+            projected.setProductId(row.getProductId());
+            projected.setAvailableQuantity(row.getAvailableQuantity());
+            projected.setInStock(Boolean.TRUE.equals(row.getInStock()));
+            projected.setLowStock(Boolean.TRUE.equals(row.getLowStock()));
+            projected.setInventoryUpdatedAt(row.getUpdatedAt());
+            changed.add(projected);
+        }
+        if (changed.isEmpty()) {
+            return 0;
+        }
+
+        // One batched upsert per page instead of a select-then-write per row
+        jdbcTemplate.batchUpdate(UPSERT_SQL, changed, changed.size(), (statement, row) -> {
+            statement.setLong(1, row.getProductId());
+            statement.setInt(2, row.getAvailableQuantity());
+            statement.setBoolean(3, row.getInStock());
+            statement.setBoolean(4, row.getLowStock());
+            statement.setTimestamp(5, Timestamp.valueOf(row.getInventoryUpdatedAt()));
+        });
+        changed.forEach(row -> availability.put(row.getProductId(), row));
+        return changed.size();
+    }
+}
@@ -0,0 +1,170 @@
+package com.ecommerce.product_catalog_service.service;
+
+import com.ecommerce.product_catalog_service.model.Product;
+import com.ecommerce.product_catalog_service.model.ProductChange;
+import com.ecommerce.product_catalog_service.repository.ProductRepository;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * In-process cache of products in front of ProductRepository, for the read endpoints.
+ *
+ * - Bounded by estimated heap (max-weight-bytes), not entry count, since descriptions vary a lot
+ * - Write-through: ProductService and imports put updated products and evict deleted ones after commit
+ * - Writes made on other instances evict entries via ProductChangesEvent (every product row change
+ *   has a feed entry); entries also expire after expire-after-write-seconds as a backstop.
+ *   This instance's own entries are skipped - evicting would only throw away the write-through.
+ * - Multi-gets load all misses with one findAllById
+ * - Warmed at startup with the most recently updated products
+ *
+ * Cached products are shared: callers must treat them as read-only.
+ * Metrics: cache.* (tag cache=products) from Caffeine, plus catalog.product.cache.load and .hit.ratio.
+ */
+@Component
+public class ProductCache {
+
+    private static final int WARMUP_PAGE_SIZE = 1000;
+    // Object headers, boxed fields and the two timestamps of a Product, roughly
+    private static final int PRODUCT_BASE_BYTES = 200;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductChangeFeed productChangeFeed;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${catalog.product-cache.max-weight-bytes:268435456}")
+    private long maxWeightBytes;
+
+    @Value("${catalog.product-cache.expire-after-write-seconds:60}")
+    private long expireAfterWriteSeconds;
+
+    @Value("${catalog.product-cache.warmup-size:10000}")
+    private int warmupSize;
+
+    private LoadingCache<Long, Product> products;
+    private Timer loadTimer;
+
+    @PostConstruct
+    public void init() {
+        loadTimer = Timer.builder("catalog.product.cache.load")
+                .description("Time to load cache misses from the database")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+
+        products = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((Long id, Product product) -> weigh(product))
+                .expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds))
+                .recordStats()
+                .build(new CacheLoader<Long, Product>() {
+                    @Override
+                    public Product load(Long id) {
+                        return loadTimer.record(() -> productRepository.findById(id).orElse(null));
+                    }
+
+                    @Override
+                    public Map<Long, Product> loadAll(Set<? extends Long> ids) {
+                        return loadTimer.record(() -> {
+                            Map<Long, Product> loaded = new HashMap<>();
+                            for (Product product : productRepository.findAllById(new ArrayList<Long>(ids))) {
+                                loaded.put(product.getId(), product);
+                            }
+                            return loaded;
+                        });
+                    }
+                });
+
+        CaffeineCacheMetrics.monitor(meterRegistry, products, "products");
+        Gauge.builder("catalog.product.cache.hit.ratio", products, cache -> cache.stats().hitRate())
+                .description("Share of product lookups served from the cache")
+                .register(meterRegistry);
+    }
+
+    public Optional<Product> get(Long id) {
+        return Optional.ofNullable(products.get(id));
+    }
+
+    /**
+     * @return The products that exist, loading all misses with one query
+     */
+    public List<Product> getAll(Collection<Long> ids) {
+        return new ArrayList<>(products.getAll(ids).values());
+    }
+
+    public void put(Product product) {
+        products.put(product.getId(), product);
+    }
+
+    public void evict(Long id) {
+        products.invalidate(id);
+    }
+
+    @EventListener
+    public void onProductChanges(ProductChangesEvent event) {
+        String self = productChangeFeed.getInstanceId();
+        for (ProductChange change : event.getChanges()) {
+            if (!self.equals(change.getOrigin())) {
+                products.invalidate(change.getProductId());
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            int loaded = 0;
+            for (int page = 0; loaded < warmupSize; page++) {
+                List<Product> chunk = productRepository.findRecentlyUpdated(PageRequest.of(page, WARMUP_PAGE_SIZE));
+                for (Product product : chunk) {
+                    if (loaded < warmupSize) {
+                        put(product);
+                        loaded++;
+                    }
+                }
+                if (chunk.size() < WARMUP_PAGE_SIZE) {
+                    break;
+                }
+            }
+            System.out.println(">>> Product cache warmed with " + loaded + " products (~" +
+                    products.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L) / 1024 + " KB)");
+        } catch (Exception e) {
+            System.err.println(">>> Product cache warm-up skipped: " + e.getMessage());
+        }
+    }
+
+    private static int weigh(Product product) {
+        int bytes = PRODUCT_BASE_BYTES;
+        if (product.getName() != null) {
+            bytes += 2 * product.getName().length();
+        }
+        if (product.getDescription() != null) {
+            bytes += 2 * product.getDescription().length();
+        }
+        return bytes;
+    }
+}
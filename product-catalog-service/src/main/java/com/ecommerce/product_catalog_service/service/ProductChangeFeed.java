@@ -0,0 +1,317 @@
+package com.ecommerce.product_catalog_service.service;
+
+import com.ecommerce.product_catalog_service.model.Product;
+import com.ecommerce.product_catalog_service.model.ProductChange;
+import com.ecommerce.product_catalog_service.model.ProductChangeType;
+import com.ecommerce.product_catalog_service.repository.ProductChangeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The product change feed: an append-only log of product creates, updates and deletions,
+ * read by position (the entry ID).
+ *
+ * - Appends take a transaction-scoped advisory lock, so IDs become visible in commit order
+ *   and "everything after position N" never skips an entry that commits later
+ * - Consumers can poll, long-poll (waitSeconds) or subscribe to a server-sent event stream
+ * - One dispatcher checks the head of the log every dispatch-interval-ms and wakes waiting
+ *   long-polls and publishes a ProductChangesEvent to in-process listeners. Streams are written
+ *   on a separate pool of send-threads, one bounded page per subscriber per tick, so a slow
+ *   client or one catching up from far behind never holds up the dispatcher or other streams.
+ * - Compaction removes entries superseded by a later entry for the same product once they
+ *   are older than compaction-min-age-hours; consumers further behind than that still end up
+ *   with the latest state of every product, they just skip intermediate states
+ */
+@Service
+public class ProductChangeFeed {
+
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int MAX_WAIT_SECONDS = 30;
+
+    // Arbitrary application-wide key for pg_advisory_xact_lock ("PCHG")
+    private static final long APPEND_LOCK_KEY = 0x50434847L;
+    private static final int STREAM_PAGE_SIZE = 500;
+    private static final int COMPACTION_BATCH_SIZE = 5000;
+
+    @Autowired
+    private ProductChangeRepository productChangeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${catalog.changes.stream-timeout-minutes:30}")
+    private long streamTimeoutMinutes;
+
+    @Value("${catalog.changes.heartbeat-seconds:15}")
+    private long heartbeatSeconds;
+
+    @Value("${catalog.changes.compaction-min-age-hours:24}")
+    private long compactionMinAgeHours;
+
+    @Value("${catalog.changes.send-threads:4}")
+    private int sendThreads;
+
+    // Stamped on every entry this instance appends
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final Queue<Subscriber> subscribers = new ConcurrentLinkedQueue<>();
+
+    private ExecutorService sendExecutor;
+    private long dispatchedPosition;
+    private long lastHeartbeat = System.currentTimeMillis();
+
+    @PostConstruct
+    public void init() {
+        // In-process listeners build their state from the tables at startup and follow from here
+        dispatchedPosition = productChangeRepository.findLatestId();
+        sendExecutor = Executors.newFixedThreadPool(sendThreads,
+                Thread.ofPlatform().name("product-change-send-", 0).daemon().factory());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sendExecutor.shutdownNow();
+    }
+
+    /**
+     * Record a change in the caller's transaction.
+     * The advisory lock is held until that transaction ends, which serializes appends
+     * (catalog writes are rare) and makes IDs commit in order.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public ProductChange append(Product product, ProductChangeType changeType) {
+        return appendAll(List.of(ProductChange.of(product, changeType))).get(0);
+    }
+
+    /**
+     * Record several changes in the caller's transaction, taking the append lock once
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<ProductChange> appendAll(List<ProductChange> changes) {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> null, APPEND_LOCK_KEY);
+        changes.forEach(change -> change.setOrigin(instanceId));
+        return productChangeRepository.saveAll(changes);
+    }
+
+    /**
+     * Identifies this instance in the origin of the entries it appends
+     */
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public List<ProductChange> readSince(long since, int limit) {
+        return productChangeRepository.findChangesSince(since, PageRequest.of(0, limit));
+    }
+
+    public long head() {
+        return productChangeRepository.findLatestId();
+    }
+
+    /**
+     * Changes after 'since'; if there are none yet, wait up to waitSeconds for some to arrive.
+     * The request thread is released while waiting.
+     */
+    public DeferredResult<ResponseEntity<List<ProductChange>>> poll(long since, int limit, int waitSeconds) {
+        DeferredResult<ResponseEntity<List<ProductChange>>> result =
+                new DeferredResult<>(waitSeconds * 1000L, ResponseEntity.ok(List.of()));
+        List<ProductChange> changes = readSince(since, limit);
+        if (!changes.isEmpty() || waitSeconds <= 0) {
+            result.setResult(ResponseEntity.ok(changes));
+            return result;
+        }
+
+        Waiter waiter = new Waiter(since, limit, result);
+        result.onCompletion(() -> waiters.remove(waiter));
+        waiters.add(waiter);
+        return result;
+    }
+
+    /**
+     * Server-sent events: everything after 'since', then new changes as they are appended.
+     * Each event's id is the feed position, so a reconnecting EventSource resumes via Last-Event-ID.
+     * Nothing is sent here - the dispatcher catches the stream up a page at a time from its next tick.
+     */
+    public SseEmitter subscribe(long since) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMinutes * 60 * 1000);
+        Subscriber subscriber = new Subscriber(since, emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Check the head of the log and hand new entries to listeners, long-polls and streams
+     */
+    @Scheduled(fixedDelayString = "${catalog.changes.dispatch-interval-ms:500}")
+    public synchronized void dispatch() {
+        long head;
+        try {
+            head = productChangeRepository.findLatestId();
+        } catch (Exception e) {
+            System.err.println(">>> Product change dispatch failed: " + e.getMessage());
+            return;
+        }
+
+        while (dispatchedPosition < head) {
+            List<ProductChange> changes = readSince(dispatchedPosition, MAX_PAGE_SIZE);
+            if (changes.isEmpty()) {
+                break;
+            }
+            try {
+                eventPublisher.publishEvent(new ProductChangesEvent(changes));
+            } catch (Exception e) {
+                System.err.println(">>> Product change listener failed: " + e.getMessage());
+            }
+            dispatchedPosition = changes.get(changes.size() - 1).getId();
+        }
+
+        for (Waiter waiter : waiters) {
+            if (waiter.since < head) {
+                waiters.remove(waiter);
+                waiter.result.setResult(ResponseEntity.ok(readSince(waiter.since, waiter.limit)));
+            }
+        }
+
+        boolean heartbeatDue = System.currentTimeMillis() - lastHeartbeat >= heartbeatSeconds * 1000;
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.position < head) {
+                send(subscriber, () -> pushPage(subscriber));
+            } else if (heartbeatDue) {
+                send(subscriber, () -> heartbeat(subscriber));
+            }
+        }
+        if (heartbeatDue) {
+            lastHeartbeat = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Delete superseded entries in batches, each in its own transaction
+     */
+    @Scheduled(fixedDelayString = "${catalog.changes.compaction-interval-ms:3600000}",
+            initialDelayString = "${catalog.changes.compaction-initial-delay-ms:300000}")
+    public void compact() {
+        try {
+            LocalDateTime before = LocalDateTime.now().minusHours(compactionMinAgeHours);
+            int total = 0;
+            int deleted;
+            do {
+                deleted = productChangeRepository.deleteSupersededBefore(before, COMPACTION_BATCH_SIZE);
+                total += deleted;
+            } while (deleted == COMPACTION_BATCH_SIZE);
+            if (total > 0) {
+                System.out.println(">>> Compacted product change feed: removed " + total + " superseded entries");
+            }
+        } catch (Exception e) {
+            System.err.println(">>> Product change feed compaction failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Hand a write to the send pool, unless the subscriber's previous write is still running
+     * (it gets the rest on a later tick)
+     */
+    private void send(Subscriber subscriber, Runnable write) {
+        if (!subscriber.sending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sendExecutor.execute(() -> {
+                try {
+                    write.run();
+                } finally {
+                    subscriber.sending.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            subscriber.sending.set(false);
+        }
+    }
+
+    /**
+     * Send the subscriber's next page of changes, at most STREAM_PAGE_SIZE
+     */
+    private void pushPage(Subscriber subscriber) {
+        try {
+            for (ProductChange change : readSince(subscriber.position, STREAM_PAGE_SIZE)) {
+                subscriber.emitter.send(SseEmitter.event()
+                        .id(String.valueOf(change.getId()))
+                        .name("product-change")
+                        .data(change, MediaType.APPLICATION_JSON));
+                subscriber.position = change.getId();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away - onError/onCompletion removes the subscriber
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        } catch (Exception e) {
+            // Reading the log failed - the next tick retries from the same position
+            System.err.println(">>> Product change stream push failed: " + e.getMessage());
+        }
+    }
+
+    private void heartbeat(Subscriber subscriber) {
+        try {
+            // Comment line: keeps proxies from closing an idle stream, ignored by EventSource
+            subscriber.emitter.send(SseEmitter.event().comment("keep-alive"));
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+
+    private static class Waiter {
+        private final long since;
+        private final int limit;
+        private final DeferredResult<ResponseEntity<List<ProductChange>>> result;
+
+        Waiter(long since, int limit, DeferredResult<ResponseEntity<List<ProductChange>>> result) {
+            this.since = since;
+            this.limit = limit;
+            this.result = result;
+        }
+    }
+
+    private static class Subscriber {
+        private final SseEmitter emitter;
+        // Only one write in flight per subscriber, so position needs no lock beyond visibility
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile long position;
+
+        Subscriber(long position, SseEmitter emitter) {
+            this.position = position;
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.product_catalog_service.service;
+
+import com.ecommerce.product_catalog_service.model.ProductChange;
+
+import java.util.List;
+
+/**
+ * Published by ProductChangeFeed for every batch of new feed entries, whichever instance
+ * made the change, so in-process caches and indexes can follow the feed without polling it.
+ */
+public class ProductChangesEvent {
+
+    private final List<ProductChange> changes;
+
+    public ProductChangesEvent(List<ProductChange> changes) {
+        this.changes = changes;
+    }
+
+    public List<ProductChange> getChanges() {
+        return changes;
+    }
+}
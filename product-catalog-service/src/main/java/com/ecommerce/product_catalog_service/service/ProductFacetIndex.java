@@ -0,0 +1,500 @@
+package com.ecommerce.product_catalog_service.service;
+
+import com.ecommerce.product_catalog_service.dto.FacetedProductPage;
+import com.ecommerce.product_catalog_service.model.Category;
+import com.ecommerce.product_catalog_service.model.ProductAttribute;
+import com.ecommerce.product_catalog_service.model.ProductChange;
+import com.ecommerce.product_catalog_service.model.ProductChangeType;
+import com.ecommerce.product_catalog_service.repository.CategoryRepository;
+import com.ecommerce.product_catalog_service.repository.ProductAttributeRepository;
+import com.ecommerce.product_catalog_service.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory facet index for faceted navigation (category, brand, attributes).
+ *
+ * - Every product gets a dense ordinal, reused after deletes, so bitmaps stay as short as
+ *   the number of products even though product IDs are sparse
+ * - One BitSet per facet value ("brand" = "acme", "attr:color" = "red", "category" = "12"),
+ *   with category bitmaps also holding the products of every subcategory
+ * - Numeric attributes and the price are kept in per-ordinal arrays and filtered by range
+ * - A filter is a few BitSet ORs (values of one facet) and ANDs (across facets); facet counts
+ *   are intersection cardinalities, so nothing is recomputed from the database per request
+ * - Built at startup, then kept current per product: this instance's writes right after
+ *   commit, other instances' writes through ProductChangesEvents
+ *
+ * Reads take the read lock; every change goes through the synchronized methods.
+ */
+@Service
+public class ProductFacetIndex {
+
+    public static final String CATEGORY = "category";
+    public static final String BRAND = "brand";
+    public static final String ATTRIBUTE_PREFIX = "attr:";
+
+    private static final int LOAD_PAGE_SIZE = 2000;
+    private static final int MAX_CATEGORY_DEPTH = 16;
+    private static final int MAX_FACET_VALUES = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductAttributeRepository productAttributeRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private State state = new State();
+    private Map<Long, Long> categoryParents = Map.of();
+    private volatile boolean ready;
+
+    /**
+     * @param selected Facet name to accepted values; a product must match one value of every facet
+     * @param ranges Numeric attribute name to {min, max}, either may be NaN for an open end
+     * @param minPrice Lowest price, or null
+     * @param maxPrice Highest price, or null
+     * @return One page of matching product IDs, the total, and value counts per facet. A facet's
+     *         counts ignore that facet's own selection, so the other values stay selectable.
+     */
+    public FacetedProductPage filter(Map<String, Set<String>> selected, Map<String, double[]> ranges,
+                                    BigDecimal minPrice, BigDecimal maxPrice, int page, int size) {
+        if (!ready) {
+            throw new IllegalStateException("Facet index is still loading");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        long start = System.nanoTime();
+
+        lock.readLock().lock();
+        try {
+            State s = state;
+            BitSet scope = (BitSet) s.live.clone();
+            applyRanges(s, scope, ranges, minPrice, maxPrice);
+
+            Map<String, BitSet> selections = new LinkedHashMap<>();
+            selected.forEach((facet, values) -> {
+                BitSet union = new BitSet();
+                Map<String, BitSet> facetValues = s.bitmaps.getOrDefault(facet, Map.of());
+                for (String value : values) {
+                    BitSet bitmap = facetValues.get(normalizeValue(value));
+                    if (bitmap != null) {
+                        union.or(bitmap);
+                    }
+                }
+                selections.put(facet, union);
+            });
+
+            BitSet matches = (BitSet) scope.clone();
+            selections.values().forEach(matches::and);
+
+            List<Long> productIds = new ArrayList<>(pageSize);
+            long skip = (long) Math.max(0, page) * pageSize;
+            for (int ordinal = matches.nextSetBit(0); ordinal >= 0 && productIds.size() < pageSize;
+                 ordinal = matches.nextSetBit(ordinal + 1)) {
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    productIds.add(s.productIds[ordinal]);
+                }
+            }
+
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            List<String> facetNames = new ArrayList<>(s.bitmaps.keySet());
+            facetNames.sort(Comparator.comparing(ProductFacetIndex::facetOrder).thenComparing(name -> name));
+            for (String facet : facetNames) {
+                facets.put(facet, countValues(s.bitmaps.get(facet), scope, selections, facet));
+            }
+
+            FacetedProductPage result = new FacetedProductPage();
+            result.setTotal(matches.cardinality());
+            result.setPage(Math.max(0, page));
+            result.setSize(pageSize);
+            result.setProductIds(productIds);
+            result.setFacets(facets);
+            result.setTookMicros((System.nanoTime() - start) / 1000);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Load every product's facet values into a fresh index and swap it in
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void build() {
+        long start = System.currentTimeMillis();
+        try {
+            // Feed events dispatched while loading wait on this monitor and are applied afterwards
+            categoryParents = loadCategoryParents();
+            State fresh = new State();
+            long afterId = 0;
+            List<Object[]> page;
+            do {
+                page = productRepository.findFacetValuesAfter(afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+                if (page.isEmpty()) {
+                    break;
+                }
+                List<Long> ids = page.stream().map(row -> (Long) row[0]).toList();
+                Map<Long, List<ProductAttribute>> attributes = attributesByProduct(ids);
+                for (Object[] row : page) {
+                    add(fresh, row, attributes.getOrDefault((Long) row[0], List.of()));
+                }
+                afterId = ids.get(ids.size() - 1);
+            } while (page.size() == LOAD_PAGE_SIZE);
+
+            lock.writeLock().lock();
+            try {
+                state = fresh;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ready = true;
+            System.out.println(">>> Facet index built: " + fresh.indexed.size() + " products, " +
+                    fresh.valueCount() + " facet values in " + (System.currentTimeMillis() - start) + "ms");
+        } catch (Exception e) {
+            System.err.println(">>> Facet index build failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Re-read the given products' category, brand, price and attributes and re-index them.
+     * Products that no longer exist are removed.
+     */
+    public synchronized void reindex(Collection<Long> productIds) {
+        if (!ready || productIds.isEmpty()) {
+            return;
+        }
+        // Categories are few; reloading them keeps new subcategories' ancestors right
+        categoryParents = loadCategoryParents();
+        Map<Long, Object[]> rows = new HashMap<>();
+        for (Object[] row : productRepository.findFacetValuesByIdIn(productIds)) {
+            rows.put((Long) row[0], row);
+        }
+        Map<Long, List<ProductAttribute>> attributes = attributesByProduct(rows.keySet());
+
+        lock.writeLock().lock();
+        try {
+            for (Long productId : productIds) {
+                remove(state, productId);
+                Object[] row = rows.get(productId);
+                if (row != null) {
+                    add(state, row, attributes.getOrDefault(productId, List.of()));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public synchronized void productDeleted(Long productId) {
+        if (!ready) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            remove(state, productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Follow the change feed, so writes made on other instances show up in the facets too
+     */
+    @EventListener
+    public synchronized void onProductChanges(ProductChangesEvent event) {
+        Set<Long> changed = new LinkedHashSet<>();
+        for (ProductChange change : event.getChanges()) {
+            if (change.getChangeType() == ProductChangeType.DELETED) {
+                changed.remove(change.getProductId());
+                productDeleted(change.getProductId());
+            } else {
+                changed.add(change.getProductId());
+            }
+        }
+        reindex(changed);
+    }
+
+    /**
+     * Size of the index and the approximate heap its bitmaps and value arrays take
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", ready);
+        if (!ready) {
+            return stats;
+        }
+        lock.readLock().lock();
+        try {
+            State s = state;
+            long bitmapBytes = 0;
+            for (Map<String, BitSet> values : s.bitmaps.values()) {
+                for (BitSet bitmap : values.values()) {
+                    bitmapBytes += bitmap.size() / 8;
+                }
+            }
+            stats.put("products", s.indexed.size());
+            stats.put("ordinals", s.nextOrdinal);
+            stats.put("facets", s.bitmaps.size());
+            stats.put("facetValues", s.valueCount());
+            stats.put("numericAttributes", s.numbers.size());
+            stats.put("estimatedBitmapBytes", bitmapBytes);
+            stats.put("estimatedArrayBytes", (long) s.capacity() * 8 * (2 + s.numbers.size()));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return stats;
+    }
+
+    public static String normalizeValue(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private Map<String, Integer> countValues(Map<String, BitSet> values, BitSet scope,
+                                             Map<String, BitSet> selections, String facet) {
+        // Everything selected except this facet's own values
+        BitSet base = (BitSet) scope.clone();
+        selections.forEach((selectedFacet, union) -> {
+            if (!selectedFacet.equals(facet)) {
+                base.and(union);
+            }
+        });
+
+        List<Map.Entry<String, Integer>> counts = new ArrayList<>();
+        values.forEach((value, bitmap) -> {
+            if (bitmap.intersects(base)) {
+                BitSet both = (BitSet) bitmap.clone();
+                both.and(base);
+                counts.add(Map.entry(value, both.cardinality()));
+            }
+        });
+        counts.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+
+        Map<String, Integer> top = new LinkedHashMap<>();
+        counts.stream().limit(MAX_FACET_VALUES).forEach(entry -> top.put(entry.getKey(), entry.getValue()));
+        return top;
+    }
+
+    private static void applyRanges(State s, BitSet scope, Map<String, double[]> ranges,
+                                    BigDecimal minPrice, BigDecimal maxPrice) {
+        if (ranges.isEmpty() && minPrice == null && maxPrice == null) {
+            return;
+        }
+        double lowPrice = minPrice == null ? Double.NaN : minPrice.doubleValue();
+        double highPrice = maxPrice == null ? Double.NaN : maxPrice.doubleValue();
+        List<double[]> columns = new ArrayList<>();
+        List<double[]> bounds = new ArrayList<>();
+        ranges.forEach((name, range) -> {
+            // A numeric attribute nobody has matches nothing
+            columns.add(s.numbers.getOrDefault(name, new double[0]));
+            bounds.add(range);
+        });
+
+        for (int ordinal = scope.nextSetBit(0); ordinal >= 0; ordinal = scope.nextSetBit(ordinal + 1)) {
+            boolean keep = inRange(s.prices[ordinal], lowPrice, highPrice, minPrice == null && maxPrice == null);
+            for (int i = 0; keep && i < columns.size(); i++) {
+                double[] column = columns.get(i);
+                double value = ordinal < column.length ? column[ordinal] : Double.NaN;
+                keep = inRange(value, bounds.get(i)[0], bounds.get(i)[1], false);
+            }
+            if (!keep) {
+                scope.clear(ordinal);
+            }
+        }
+    }
+
+    private static boolean inRange(double value, double min, double max, boolean unbounded) {
+        if (unbounded) {
+            return true;
+        }
+        return !Double.isNaN(value)
+                && (Double.isNaN(min) || value >= min)
+                && (Double.isNaN(max) || value <= max);
+    }
+
+    private void add(State s, Object[] row, List<ProductAttribute> attributes) {
+        Long productId = (Long) row[0];
+        Long categoryId = (Long) row[1];
+        String brand = (String) row[2];
+        BigDecimal price = (BigDecimal) row[3];
+
+        int ordinal = s.allocate(productId);
+        s.prices[ordinal] = price == null ? Double.NaN : price.doubleValue();
+
+        IndexedProduct indexed = new IndexedProduct(ordinal);
+        int depth = 0;
+        for (Long category = categoryId; category != null && depth < MAX_CATEGORY_DEPTH;
+             category = categoryParents.get(category), depth++) {
+            indexed.values.add(new String[]{CATEGORY, category.toString()});
+        }
+        if (brand != null && !brand.isBlank()) {
+            indexed.values.add(new String[]{BRAND, normalizeValue(brand)});
+        }
+        for (ProductAttribute attribute : attributes) {
+            Object value = attribute.getValue();
+            if (value == null) {
+                continue;
+            }
+            if (value instanceof BigDecimal number) {
+                s.number(attribute.getName())[ordinal] = number.doubleValue();
+                indexed.numbers.add(attribute.getName());
+            } else {
+                indexed.values.add(new String[]{ATTRIBUTE_PREFIX + attribute.getName(), normalizeValue(value.toString())});
+            }
+        }
+
+        for (String[] facetValue : indexed.values) {
+            s.bitmaps.computeIfAbsent(facetValue[0], facet -> new HashMap<>())
+                    .computeIfAbsent(facetValue[1], value -> new BitSet())
+                    .set(ordinal);
+        }
+        s.indexed.put(productId, indexed);
+    }
+
+    private static void remove(State s, Long productId) {
+        IndexedProduct indexed = s.indexed.remove(productId);
+        if (indexed == null) {
+            return;
+        }
+        int ordinal = indexed.ordinal;
+        for (String[] facetValue : indexed.values) {
+            Map<String, BitSet> values = s.bitmaps.get(facetValue[0]);
+            BitSet bitmap = values == null ? null : values.get(facetValue[1]);
+            if (bitmap == null) {
+                continue;
+            }
+            bitmap.clear(ordinal);
+            if (bitmap.isEmpty()) {
+                values.remove(facetValue[1]);
+                if (values.isEmpty()) {
+                    s.bitmaps.remove(facetValue[0]);
+                }
+            }
+        }
+        for (String name : indexed.numbers) {
+            s.numbers.get(name)[ordinal] = Double.NaN;
+        }
+        s.release(ordinal);
+    }
+
+    private Map<Long, List<ProductAttribute>> attributesByProduct(Collection<Long> productIds) {
+        Map<Long, List<ProductAttribute>> byProduct = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return byProduct;
+        }
+        for (ProductAttribute attribute : productAttributeRepository.findByProductIdIn(productIds)) {
+            byProduct.computeIfAbsent(attribute.getProductId(), id -> new ArrayList<>()).add(attribute);
+        }
+        return byProduct;
+    }
+
+    private Map<Long, Long> loadCategoryParents() {
+        Map<Long, Long> parents = new HashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            if (category.getParentId() != null) {
+                parents.put(category.getId(), category.getParentId());
+            }
+        }
+        return parents;
+    }
+
+    private static int facetOrder(String facet) {
+        return facet.equals(CATEGORY) ? 0 : facet.equals(BRAND) ? 1 : 2;
+    }
+
+    private static class IndexedProduct {
+        private final int ordinal;
+        private final List<String[]> values = new ArrayList<>();
+        private final Set<String> numbers = new HashSet<>();
+
+        IndexedProduct(int ordinal) {
+            this.ordinal = ordinal;
+        }
+    }
+
+    /**
+     * Everything the index holds, so a rebuild can be prepared aside and swapped in at once
+     */
+    private static class State {
+        private final Map<Long, IndexedProduct> indexed = new HashMap<>();
+        private final Map<String, Map<String, BitSet>> bitmaps = new HashMap<>();
+        private final Map<String, double[]> numbers = new HashMap<>();
+        private final BitSet live = new BitSet();
+        private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+        private long[] productIds = new long[1024];
+        private double[] prices = grown(new double[0], 0, 1024);
+        private int nextOrdinal;
+
+        int allocate(Long productId) {
+            Integer free = freeOrdinals.poll();
+            int ordinal = free != null ? free : nextOrdinal++;
+            if (ordinal >= productIds.length) {
+                grow(Math.max(ordinal + 1, productIds.length * 2));
+            }
+            productIds[ordinal] = productId;
+            live.set(ordinal);
+            return ordinal;
+        }
+
+        void release(int ordinal) {
+            live.clear(ordinal);
+            prices[ordinal] = Double.NaN;
+            freeOrdinals.push(ordinal);
+        }
+
+        double[] number(String name) {
+            return numbers.computeIfAbsent(name, n -> {
+                double[] column = new double[productIds.length];
+                Arrays.fill(column, Double.NaN);
+                return column;
+            });
+        }
+
+        int capacity() {
+            return productIds.length;
+        }
+
+        long valueCount() {
+            return bitmaps.values().stream().mapToLong(Map::size).sum();
+        }
+
+        private void grow(int capacity) {
+            int oldCapacity = productIds.length;
+            productIds = Arrays.copyOf(productIds, capacity);
+            prices = grown(prices, oldCapacity, capacity);
+            numbers.replaceAll((name, column) -> grown(column, oldCapacity, capacity));
+        }
+
+        private static double[] grown(double[] column, int oldCapacity, int capacity) {
+            double[] copy = Arrays.copyOf(column, capacity);
+            Arrays.fill(copy, oldCapacity, capacity, Double.NaN);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.ecommerce.product_catalog_service.service;
+
+import com.ecommerce.product_catalog_service.dto.ProductImportReport;
+import com.ecommerce.product_catalog_service.dto.ProductImportRow;
+import com.ecommerce.product_catalog_service.model.Product;
+import com.ecommerce.product_catalog_service.model.ProductChange;
+import com.ecommerce.product_catalog_service.model.ProductChangeType;
+import com.ecommerce.product_catalog_service.repository.ProductRepository;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Bulk upsert of products keyed by sku, for onboarding supplier catalogs.
+ *
+ * - The body (NDJSON or a JSON array) is read one row at a time, never held in memory whole
+ * - Rows are applied in chunks of catalog.import.chunk-size, one transaction per chunk: one
+ *   findBySkuIn per chunk, and inserts/updates go out as JDBC batches thanks to sequence IDs
+ * - A chunk that fails is retried row by row, so one bad row doesn't sink its neighbours
+ * - Every created or changed product gets a change feed entry in its chunk's transaction.
+ *   This instance's product cache is written through once the chunk commits; other caches
+ *   and the suggest and facet indexes pick the changes up from the feed
+ */
+@Service
+public class ProductImportService {
+
+    private static final int MAX_SKU_LENGTH = 64;
+    private static final int MAX_BRAND_LENGTH = 100;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductChangeFeed productChangeFeed;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${catalog.import.chunk-size:500}")
+    private int chunkSize;
+
+    public ProductImportReport importProducts(InputStream input) {
+        long start = System.currentTimeMillis();
+        ProductImportReport report = new ProductImportReport();
+        List<NumberedRow> chunk = new ArrayList<>(chunkSize);
+        int received = 0;
+
+        try (MappingIterator<ProductImportRow> rows = objectMapper.readerFor(ProductImportRow.class).readValues(input)) {
+            while (rows.hasNextValue()) {
+                ProductImportRow row = rows.nextValue();
+                received++;
+                String error = validate(row);
+                if (error != null) {
+                    report.addFailure(received, row.getSku(), error);
+                    continue;
+                }
+                chunk.add(new NumberedRow(received, row));
+                if (chunk.size() == chunkSize) {
+                    applyChunk(chunk, report);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            // Malformed JSON: there's no reliable way to find the next row, so stop here
+            report.setAborted(true);
+            report.addFailure(received + 1, null, "Unreadable input: " + e.getMessage());
+        }
+        if (!chunk.isEmpty()) {
+            applyChunk(chunk, report);
+        }
+
+        report.setReceived(received);
+        report.setTookMs(System.currentTimeMillis() - start);
+        System.out.println(">>> Product import: " + received + " rows, " + report.getCreated() + " created, " +
+                report.getUpdated() + " updated, " + report.getUnchanged() + " unchanged, " +
+                report.getFailed() + " failed in " + report.getTookMs() + "ms");
+        return report;
+    }
+
+    private void applyChunk(List<NumberedRow> chunk, ProductImportReport report) {
+        try {
+            int[] counts = transactionTemplate.execute(status -> upsert(chunk));
+            report.addCounts(counts[0], counts[1], counts[2]);
+        } catch (RuntimeException e) {
+            // Find the offending rows: retry each in its own transaction
+            for (NumberedRow row : chunk) {
+                try {
+                    int[] counts = transactionTemplate.execute(status -> upsert(List.of(row)));
+                    report.addCounts(counts[0], counts[1], counts[2]);
+                } catch (RuntimeException rowError) {
+                    report.addFailure(row.number, row.row.getSku(), rootMessage(rowError));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return {created, updated, unchanged}
+     */
+    private int[] upsert(List<NumberedRow> rows) {
+        Set<String> skus = new HashSet<>();
+        rows.forEach(row -> skus.add(row.row.getSku()));
+        Map<String, Product> bySku = new HashMap<>();
+        for (Product product : productRepository.findBySkuIn(skus)) {
+            bySku.put(product.getSku(), product);
+        }
+
+        int created = 0;
+        int updated = 0;
+        int unchanged = 0;
+        List<Product> newProducts = new ArrayList<>();
+        // One feed entry per product and chunk, even if the sku appears twice
+        Map<String, ProductChangeType> feedChanges = new LinkedHashMap<>();
+
+        for (NumberedRow numbered : rows) {
+            ProductImportRow row = numbered.row;
+            Product product = bySku.get(row.getSku());
+            if (product == null) {
+                product = new Product();
+                product.setSku(row.getSku());
+                apply(row, product);
+                bySku.put(row.getSku(), product);
+                newProducts.add(product);
+                feedChanges.put(row.getSku(), ProductChangeType.CREATED);
+                created++;
+            } else if (sameContent(product, row)) {
+                unchanged++;
+            } else {
+                feedChanges.putIfAbsent(row.getSku(), ProductChangeType.UPDATED);
+                // Existing products are managed - dirty checking batches their updates at commit
+                apply(row, product);
+                updated++;
+            }
+        }
+
+        productRepository.saveAll(newProducts);
+        List<ProductChange> changes = new ArrayList<>(feedChanges.size());
+        feedChanges.forEach((sku, type) -> changes.add(ProductChange.of(bySku.get(sku), type)));
+        if (!changes.isEmpty()) {
+            productChangeFeed.appendAll(changes);
+            // The feed skips this instance's own entries in the cache, so write through here
+            List<Product> written = new ArrayList<>(feedChanges.size());
+            feedChanges.keySet().forEach(sku -> written.add(bySku.get(sku)));
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    written.forEach(productCache::put);
+                }
+            });
+        }
+        return new int[]{created, updated, unchanged};
+    }
+
+    private static void apply(ProductImportRow row, Product product) {
+        product.setName(row.getName());
+        product.setDescription(row.getDescription());
+        product.setPrice(row.getPrice());
+        product.setCategoryId(row.getCategoryId());
+        product.setBrand(row.getBrand());
+    }
+
+    private static boolean sameContent(Product product, ProductImportRow row) {
+        return Objects.equals(product.getName(), row.getName())
+                && Objects.equals(product.getDescription(), row.getDescription())
+                && samePrice(product.getPrice(), row.getPrice())
+                && Objects.equals(product.getCategoryId(), row.getCategoryId())
+                && Objects.equals(product.getBrand(), row.getBrand());
+    }
+
+    private static boolean samePrice(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
+    private static String validate(ProductImportRow row) {
+        if (row == null) {
+            return "Empty row";
+        }
+        if (row.getSku() == null || row.getSku().isBlank()) {
+            return "sku is required";
+        }
+        if (row.getSku().length() > MAX_SKU_LENGTH) {
+            return "sku is longer than " + MAX_SKU_LENGTH + " characters";
+        }
+        if (row.getName() == null || row.getName().isBlank()) {
+            return "name is required";
+        }
+        if (row.getPrice() == null || row.getPrice().signum() < 0) {
+            return "price must be zero or more";
+        }
+        if (row.getBrand() != null && row.getBrand().length() > MAX_BRAND_LENGTH) {
+            return "brand is longer than " + MAX_BRAND_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    private static class NumberedRow {
+        private final int number;
+        private final ProductImportRow row;
+
+        NumberedRow(int number, ProductImportRow row) {
+            this.number = number;
+            this.row = row;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.ecommerce.product_catalog_service.service;
+
+import com.ecommerce.product_catalog_service.dto.ProductPage;
+import com.ecommerce.product_catalog_service.model.Product;
+import com.ecommerce.product_catalog_service.model.ProductAvailability;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Keyset-paginated product listing.
+ *
+ * Pages continue from the (sort key, id) of the last row instead of using OFFSET,
+ * so page 1000 costs the same as page 1 and concurrent inserts don't shift rows between pages.
+ * Null prices/names follow Postgres' default ordering (last when ascending, first when descending).
+ *
+ * fields= selects only the listed columns, so the storefront grid can skip descriptions.
+ * Stock (stockQuantity, inStock) comes from the availability projection, not the products table.
+ */
+@Service
+public class ProductListingService {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private static final Set<String> SORTABLE = Set.of("id", "price", "name");
+    private static final List<String> SELECTABLE = List.of("id", "sku", "name", "description", "price", "stockQuantity",
+            "inStock", "categoryId", "brand");
+    // Not columns of products - filled in from the availability projection
+    private static final Set<String> AVAILABILITY_FIELDS = Set.of("stockQuantity", "inStock");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private AvailabilityProjection availabilityProjection;
+
+    /**
+     * @param sort "id", "price" or "name", optionally followed by ",asc" or ",desc"
+     * @param cursor nextCursor from the previous page, or null for the first page
+     * @param fields Columns to return (id is always included), or null/empty for full products
+     * @throws IllegalArgumentException for an unknown sort/field or a cursor from another sort
+     */
+    @Transactional(readOnly = true)
+    public ProductPage getPage(String sort, String cursor, int size, List<String> fields) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        String[] sortParts = (sort == null || sort.isBlank() ? "id" : sort).split(",");
+        String sortKey = sortParts[0].trim();
+        boolean descending = sortParts.length > 1 && sortParts[1].trim().equalsIgnoreCase("desc");
+        if (!SORTABLE.contains(sortKey)) {
+            throw new IllegalArgumentException("Invalid sort. Valid values: id, price, name");
+        }
+        List<String> requested = selectedFields(fields);
+        List<String> selected = requested == null ? null
+                : requested.stream().filter(field -> !AVAILABILITY_FIELDS.contains(field)).toList();
+
+        Object[] position = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor, sortKey, descending);
+
+        StringBuilder jpql = new StringBuilder("SELECT ");
+        jpql.append(selected == null ? "p" : projection(selected, sortKey));
+        jpql.append(" FROM Product p");
+        if (position != null) {
+            jpql.append(" WHERE ").append(keysetCondition(sortKey, descending, position[0] == null));
+        }
+        String direction = descending ? " DESC" : " ASC";
+        if (!sortKey.equals("id")) {
+            jpql.append(" ORDER BY p.").append(sortKey).append(direction).append(", p.id").append(direction);
+        } else {
+            jpql.append(" ORDER BY p.id").append(direction);
+        }
+
+        TypedQuery<?> query = selected == null
+                ? entityManager.createQuery(jpql.toString(), Product.class)
+                : entityManager.createQuery(jpql.toString(), Object[].class);
+        if (position != null) {
+            query.setParameter("lastId", position[1]);
+            if (position[0] != null && !sortKey.equals("id")) {
+                query.setParameter("lastKey", position[0]);
+            }
+        }
+        // Fetch one extra row to know whether another page exists
+        List<?> rows = query.setMaxResults(pageSize + 1).getResultList();
+
+        boolean hasMore = rows.size() > pageSize;
+        List<?> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            Object last = page.get(page.size() - 1);
+            nextCursor = selected == null
+                    ? encodeCursor(sortKey, descending, sortValue((Product) last, sortKey), ((Product) last).getId())
+                    : encodeCursor(sortKey, descending, ((Object[]) last)[selected.size()], (Long) ((Object[]) last)[0]);
+        }
+
+        List<?> items = selected == null
+                ? availabilityProjection.withAvailability(page.stream().map(Product.class::cast).toList())
+                : toFieldMaps(page, selected, requested);
+        return new ProductPage(items, nextCursor);
+    }
+
+    private List<String> selectedFields(List<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return null;
+        }
+        List<String> selected = new ArrayList<>();
+        selected.add("id");
+        for (String field : fields) {
+            String name = field.trim();
+            if (!SELECTABLE.contains(name)) {
+                throw new IllegalArgumentException("Invalid field '" + name + "'. Valid values: " +
+                        String.join(", ", SELECTABLE));
+            }
+            if (!selected.contains(name)) {
+                selected.add(name);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Selected columns, with the sort key appended last so the cursor can always be built
+     */
+    private String projection(List<String> selected, String sortKey) {
+        StringBuilder columns = new StringBuilder();
+        for (String field : selected) {
+            columns.append("p.").append(field).append(", ");
+        }
+        return columns.append("p.").append(sortKey).toString();
+    }
+
+    private String keysetCondition(String sortKey, boolean descending, boolean lastKeyNull) {
+        String after = descending ? "<" : ">";
+        if (sortKey.equals("id")) {
+            return "p.id " + after + " :lastId";
+        }
+        String key = "p." + sortKey;
+        if (lastKeyNull) {
+            // Inside the block of null keys: ascending ends with it, descending continues with non-null keys
+            return descending
+                    ? "((" + key + " IS NULL AND p.id < :lastId) OR " + key + " IS NOT NULL)"
+                    : "(" + key + " IS NULL AND p.id > :lastId)";
+        }
+        String rest = "(" + key + " " + after + " :lastKey OR (" + key + " = :lastKey AND p.id " + after + " :lastId)";
+        // Ascending still has the null keys ahead of it; descending already returned them first
+        return descending ? rest + ")" : rest + " OR " + key + " IS NULL)";
+    }
+
+    private List<Map<String, Object>> toFieldMaps(List<?> rows, List<String> selected, List<String> requested) {
+        boolean withStockQuantity = requested.contains("stockQuantity");
+        boolean withInStock = requested.contains("inStock");
+        List<Map<String, Object>> items = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            Object[] values = (Object[]) row;
+            Map<String, Object> item = new LinkedHashMap<>();
+            for (int i = 0; i < selected.size(); i++) {
+                item.put(selected.get(i), values[i]);
+            }
+            if (withStockQuantity || withInStock) {
+                // id is always the first column
+                Optional<ProductAvailability> stock = availabilityProjection.get((Long) values[0]);
+                if (withStockQuantity) {
+                    item.put("stockQuantity", stock.map(ProductAvailability::getAvailableQuantity).orElse(null));
+                }
+                if (withInStock) {
+                    item.put("inStock", stock.map(ProductAvailability::getInStock).orElse(null));
+                }
+            }
+            items.add(item);
+        }
+        return items;
+    }
+
+    private static Object sortValue(Product product, String sortKey) {
+        return switch (sortKey) {
+            case "price" -> product.getPrice();
+            case "name" -> product.getName();
+            default -> product.getId();
+        };
+    }
+
+    private String encodeCursor(String sortKey, boolean descending, Object lastKey, Long lastId) {
+        // sort|direction|id|key - the key goes last because names may contain '|'
+        String key = lastKey == null ? "" : "=" + (lastKey instanceof BigDecimal price ? price.toPlainString() : lastKey);
+        String raw = sortKey + "|" + (descending ? "desc" : "asc") + "|" + lastId + "|" + key;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Object[] decodeCursor(String cursor, String sortKey, boolean descending) {
+        String[] parts;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            parts = raw.split("\\|", 4);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (!parts[0].equals(sortKey) || !parts[1].equals(descending ? "desc" : "asc")) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+        try {
+            Long lastId = Long.valueOf(parts[2]);
+            Object lastKey = null;
+            if (parts[3].startsWith("=")) {
+                String key = parts[3].substring(1);
+                lastKey = sortKey.equals("price") ? new BigDecimal(key) : key;
+            }
+            return new Object[]{lastKey, lastId};
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.ecommerce.product_catalog_service.service;
+
+import com.ecommerce.product_catalog_service.config.CatalogSchemaInitializer;
+import com.ecommerce.product_catalog_service.dto.ProductSearchHit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Product search on Postgres full-text search (see CatalogSchemaInitializer for the schema).
+ *
+ * - Every query word matches as a prefix ("lapt" finds "laptop"), stemmed with the english config
+ * - Typo tolerance: names whose words are trigram-similar to the query also match ("labtop")
+ * - Relevance: ts_rank_cd over name (weight A) and description (weight B), plus name similarity
+ * - Optional price range filter
+ */
+@Service
+public class ProductSearchService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_QUERY_WORDS = 8;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CatalogSchemaInitializer catalogSchemaInitializer;
+
+    @Value("${catalog.search.typo-threshold:0.5}")
+    private double typoThreshold;
+
+    /**
+     * @param query Free text entered by the user
+     * @param minPrice Lowest price to include, or null
+     * @param maxPrice Highest price to include, or null
+     * @param page Zero-based result page
+     * @return Matching products, most relevant first
+     */
+    @Transactional(readOnly = true)
+    public List<ProductSearchHit> search(String query, BigDecimal minPrice, BigDecimal maxPrice, int page, int size) {
+        String tsQuery = toPrefixTsQuery(query);
+        if (tsQuery.isEmpty()) {
+            return List.of();
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        boolean typoTolerant = catalogSchemaInitializer.isTrigramAvailable();
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("tsQuery", tsQuery)
+                .addValue("text", query.trim().toLowerCase(Locale.ROOT))
+                .addValue("limit", pageSize)
+                .addValue("offset", (long) Math.max(0, page) * pageSize);
+
+        StringBuilder sql = new StringBuilder("SELECT p.id, p.name, p.description, p.price, ")
+                .append("ts_rank_cd(p.search_vector, q.tsq, 32)");
+        if (typoTolerant) {
+            sql.append(" + 0.5 * word_similarity(:text, lower(p.name))");
+            // <% uses this threshold; SET LOCAL keeps it to this transaction
+            jdbcTemplate.queryForObject("SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)",
+                    Map.of("threshold", String.valueOf(typoThreshold)), String.class);
+        }
+        sql.append(" AS score FROM products p, to_tsquery('english', :tsQuery) q(tsq) WHERE (p.search_vector @@ q.tsq");
+        if (typoTolerant) {
+            sql.append(" OR :text <% lower(p.name)");
+        }
+        sql.append(")");
+        if (minPrice != null) {
+            sql.append(" AND p.price >= :minPrice");
+            params.addValue("minPrice", minPrice);
+        }
+        if (maxPrice != null) {
+            sql.append(" AND p.price <= :maxPrice");
+            params.addValue("maxPrice", maxPrice);
+        }
+        sql.append(" ORDER BY score DESC, p.id LIMIT :limit OFFSET :offset");
+
+        return jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> new ProductSearchHit(
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getString("description"),
+                rs.getBigDecimal("price"),
+                rs.getDouble("score")));
+    }
+
+    /**
+     * Recreate missing search schema and rebuild the search indexes from the table.
+     * Only needed after bulk loads that bypassed normal writes or if an index is suspected corrupt -
+     * regular creates/updates/deletes are searchable as soon as they commit.
+     * @return What was rebuilt and how long it took
+     */
+    public Map<String, Object> rebuild() {
+        long start = System.currentTimeMillis();
+        catalogSchemaInitializer.initialize();
+
+        List<String> rebuilt = new ArrayList<>();
+        rebuilt.add(CatalogSchemaInitializer.SEARCH_INDEX);
+        if (catalogSchemaInitializer.isTrigramAvailable()) {
+            rebuilt.add(CatalogSchemaInitializer.NAME_TRIGRAM_INDEX);
+        }
+        for (String index : rebuilt) {
+            // CONCURRENTLY keeps the table writable; it can't run inside a transaction, hence no @Transactional
+            jdbcTemplate.getJdbcTemplate().execute("REINDEX INDEX CONCURRENTLY " + index);
+        }
+        jdbcTemplate.getJdbcTemplate().execute("ANALYZE products");
+
+        Long products = jdbcTemplate.getJdbcTemplate().queryForObject("SELECT count(*) FROM products", Long.class);
+        long tookMs = System.currentTimeMillis() - start;
+        System.out.println(">>> Rebuilt product search indexes " + rebuilt + " over " + products + " products in " + tookMs + "ms");
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("indexes", rebuilt);
+        result.put("products", products);
+        result.put("tookMs", tookMs);
+        return result;
+    }
+
+    /**
+     * "Lapto  bag!" -> "lapto:* & bag:*". Only letters and digits survive, so user input
+     * can never form tsquery operators.
+     */
+    private static String toPrefixTsQuery(String query) {
+        if (query == null) {
+            return "";
+        }
+        List<String> terms = new ArrayList<>();
+        for (String word : query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty() && terms.size() < MAX_QUERY_WORDS) {
+                terms.add(word + ":*");
+            }
+        }
+        return String.join(" & ", terms);
+    }
+}
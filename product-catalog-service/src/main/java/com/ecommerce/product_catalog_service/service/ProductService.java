@@ -0,0 +1,175 @@
+package com.ecommerce.product_catalog_service.service;
+
+import com.ecommerce.product_catalog_service.model.Product;
+import com.ecommerce.product_catalog_service.model.ProductAttribute;
+import com.ecommerce.product_catalog_service.model.ProductChangeType;
+import com.ecommerce.product_catalog_service.repository.ProductAttributeRepository;
+import com.ecommerce.product_catalog_service.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Product writes. Each write records its change feed entry in the same transaction,
+ * and updates this instance's cache and indexes once the transaction has committed
+ * (other instances catch up through the feed).
+ */
+@Service
+public class ProductService {
+
+    private static final Pattern ATTRIBUTE_NAME = Pattern.compile("[a-z0-9_]{1,64}");
+    private static final int MAX_ATTRIBUTES = 50;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductAttributeRepository productAttributeRepository;
+
+    @Autowired
+    private ProductChangeFeed productChangeFeed;
+
+    @Autowired
+    private ProductSuggestService productSuggestService;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Transactional
+    public Product createProduct(Product product) {
+        Product savedProduct = productRepository.save(product);
+        productChangeFeed.append(savedProduct, ProductChangeType.CREATED);
+        afterCommit(() -> {
+            productSuggestService.productSaved(savedProduct.getId(), savedProduct.getName());
+            productFacetIndex.reindex(List.of(savedProduct.getId()));
+        });
+        return savedProduct;
+    }
+
+    /**
+     * @return The updated product, or empty if it doesn't exist
+     */
+    @Transactional
+    public Optional<Product> updateProduct(Long id, Product productDetails) {
+        Optional<Product> productOptional = productRepository.findById(id);
+        if (productOptional.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Product existingProduct = productOptional.get();
+        boolean indexedChanged = !Objects.equals(existingProduct.getName(), productDetails.getName())
+                || !samePrice(existingProduct.getPrice(), productDetails.getPrice())
+                || !Objects.equals(existingProduct.getCategoryId(), productDetails.getCategoryId())
+                || !Objects.equals(existingProduct.getBrand(), productDetails.getBrand());
+        // Any change to the row bumps its version, and caches on other instances must hear about it
+        boolean rowChanged = indexedChanged
+                || !Objects.equals(existingProduct.getDescription(), productDetails.getDescription())
+                || (productDetails.getSku() != null && !productDetails.getSku().equals(existingProduct.getSku()));
+
+        existingProduct.setName(productDetails.getName());
+        existingProduct.setDescription(productDetails.getDescription());
+        existingProduct.setPrice(productDetails.getPrice());
+        existingProduct.setCategoryId(productDetails.getCategoryId());
+        existingProduct.setBrand(productDetails.getBrand());
+        // Imports match on sku, so a PUT without one keeps the existing sku
+        if (productDetails.getSku() != null) {
+            existingProduct.setSku(productDetails.getSku());
+        }
+
+        Product updatedProduct = productRepository.save(existingProduct);
+        // Same transaction as the update, so the feed never misses a committed change
+        if (rowChanged) {
+            productChangeFeed.append(updatedProduct, ProductChangeType.UPDATED);
+        }
+        if (indexedChanged) {
+            afterCommit(() -> {
+                productSuggestService.productSaved(updatedProduct.getId(), updatedProduct.getName());
+                productFacetIndex.reindex(List.of(updatedProduct.getId()));
+            });
+        }
+        // Write-through: the committed state replaces whatever the cache held
+        afterCommit(() -> productCache.put(updatedProduct));
+        return Optional.of(updatedProduct);
+    }
+
+    @Transactional
+    public void deleteProduct(Long id) {
+        productRepository.findById(id).ifPresent(product -> {
+            productAttributeRepository.deleteByProductId(id);
+            productRepository.delete(product);
+            productChangeFeed.append(product, ProductChangeType.DELETED);
+            afterCommit(() -> {
+                productCache.evict(id);
+                productSuggestService.productDeleted(id);
+                productFacetIndex.productDeleted(id);
+            });
+        });
+    }
+
+    /**
+     * Replace all attributes of a product. Values are typed by their JSON type:
+     * strings, numbers and booleans are supported.
+     * @return The new attributes, or empty if the product doesn't exist
+     * @throws IllegalArgumentException for an invalid name or value
+     */
+    @Transactional
+    public Optional<List<ProductAttribute>> replaceAttributes(Long id, Map<String, Object> values) {
+        Optional<Product> productOptional = productRepository.findById(id);
+        if (productOptional.isEmpty()) {
+            return Optional.empty();
+        }
+        if (values.size() > MAX_ATTRIBUTES) {
+            throw new IllegalArgumentException("A product can have at most " + MAX_ATTRIBUTES + " attributes");
+        }
+
+        List<ProductAttribute> attributes = new ArrayList<>(values.size());
+        values.forEach((name, value) -> {
+            if (name == null || !ATTRIBUTE_NAME.matcher(name).matches()) {
+                throw new IllegalArgumentException("Invalid attribute name '" + name +
+                        "'. Use lowercase letters, digits and underscores");
+            }
+            attributes.add(ProductAttribute.of(id, name, value));
+        });
+
+        productAttributeRepository.deleteByProductId(id);
+        List<ProductAttribute> saved = productAttributeRepository.saveAll(attributes);
+        // Attributes don't touch the product row, but facet indexes on other instances follow the feed
+        productChangeFeed.append(productOptional.get(), ProductChangeType.UPDATED);
+        afterCommit(() -> productFacetIndex.reindex(List.of(id)));
+        return Optional.of(saved);
+    }
+
+    private static boolean samePrice(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
+    /**
+     * Cache and index updates must not fail the write that already committed - the change feed
+     * brings them back in line on its next dispatch
+     */
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    action.run();
+                } catch (Exception e) {
+                    System.err.println(">>> Post-commit product index update failed: " + e.getMessage());
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,288 @@
+package com.ecommerce.product_catalog_service.service;
+
+import com.ecommerce.product_catalog_service.dto.ProductSuggestion;
+import com.ecommerce.product_catalog_service.model.ProductChange;
+import com.ecommerce.product_catalog_service.model.ProductChangeType;
+import com.ecommerce.product_catalog_service.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Autocomplete for the search box, served from an in-memory SuggestTrie.
+ *
+ * - Keys are normalized names (lowercase, no accents/punctuation), plus the name from each
+ *   of its first words on, so "mou" suggests "Wireless Mouse" too
+ * - Ranked by popularity: product views, counted locally and folded into the trie periodically
+ * - Built at startup, then kept current incrementally: this instance's writes are applied
+ *   right after commit, and ProductChangesEvents bring in writes made on other instances
+ *
+ * Lookups only take a read lock; all changes go through the synchronized methods.
+ */
+@Service
+public class ProductSuggestService {
+
+    private static final int MAX_WORD_KEYS = 4;
+    private static final int MAX_KEY_LENGTH = 64;
+    private static final int LOAD_PAGE_SIZE = 5000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${catalog.suggest.top-k:10}")
+    private int topK;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedProduct> products = new ConcurrentHashMap<>();
+    private final Map<Long, Long> popularity = new HashMap<>();
+    private final Map<Long, LongAdder> pendingViews = new ConcurrentHashMap<>();
+
+    private SuggestTrie trie;
+    private volatile boolean ready;
+
+    /**
+     * @param query What the customer has typed so far
+     * @return Up to limit (and at most top-k) products whose name or a later word starts with query
+     */
+    public List<ProductSuggestion> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (!ready || prefix.isEmpty()) {
+            return List.of();
+        }
+        long[] ids;
+        lock.readLock().lock();
+        try {
+            ids = trie.lookup(prefix, Math.max(1, Math.min(limit, topK)));
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<ProductSuggestion> suggestions = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            IndexedProduct product = products.get(id);
+            if (product != null) {
+                suggestions.add(new ProductSuggestion(id, product.name));
+            }
+        }
+        return suggestions;
+    }
+
+    /**
+     * Count a product page view towards its popularity (applied on the next flush)
+     */
+    public void recordView(Long productId) {
+        if (products.containsKey(productId)) {
+            pendingViews.computeIfAbsent(productId, id -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Load every product name into a fresh trie and swap it in
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void build() {
+        long start = System.currentTimeMillis();
+        try {
+            // Feed events dispatched while loading wait on this monitor and are applied afterwards
+            SuggestTrie fresh = new SuggestTrie(topK, id -> popularity.getOrDefault(id, 0L));
+            Map<Long, IndexedProduct> loaded = new HashMap<>();
+            long afterId = 0;
+            List<Object[]> page;
+            do {
+                page = productRepository.findIdAndNameAfter(afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+                for (Object[] row : page) {
+                    Long id = (Long) row[0];
+                    IndexedProduct product = new IndexedProduct((String) row[1]);
+                    for (String key : product.keys) {
+                        fresh.addUnranked(key, id);
+                    }
+                    loaded.put(id, product);
+                    afterId = id;
+                }
+            } while (page.size() == LOAD_PAGE_SIZE);
+            fresh.refreshAll();
+
+            lock.writeLock().lock();
+            try {
+                trie = fresh;
+                products.clear();
+                products.putAll(loaded);
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            System.out.println(">>> Suggest index built: " + loaded.size() + " products, " + fresh.keyCount() +
+                    " keys, " + fresh.nodeCount() + " nodes in " + (System.currentTimeMillis() - start) + "ms");
+        } catch (Exception e) {
+            System.err.println(">>> Suggest index build failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * A product was created or renamed (called after commit, and for feed events)
+     */
+    public synchronized void productSaved(Long productId, String name) {
+        if (!ready) {
+            return;
+        }
+        IndexedProduct updated = new IndexedProduct(name);
+        IndexedProduct existing = products.get(productId);
+        if (existing != null && Arrays.equals(existing.keys, updated.keys)) {
+            products.put(productId, updated);
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (existing != null) {
+                for (String key : existing.keys) {
+                    trie.remove(key, productId);
+                }
+            }
+            for (String key : updated.keys) {
+                trie.add(key, productId);
+            }
+            products.put(productId, updated);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * A product was deleted (called after commit, and for feed events)
+     */
+    public synchronized void productDeleted(Long productId) {
+        IndexedProduct existing = products.get(productId);
+        if (!ready || existing == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (String key : existing.keys) {
+                trie.remove(key, productId);
+            }
+            products.remove(productId);
+            popularity.remove(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        pendingViews.remove(productId);
+    }
+
+    /**
+     * Fold counted views into popularity and re-rank the affected trie paths
+     */
+    @Scheduled(fixedDelayString = "${catalog.suggest.popularity-flush-ms:5000}")
+    public synchronized void flushViews() {
+        if (!ready || pendingViews.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            for (Long productId : new ArrayList<>(pendingViews.keySet())) {
+                long views = pendingViews.remove(productId).sum();
+                IndexedProduct product = products.get(productId);
+                if (product != null) {
+                    popularity.merge(productId, views, Long::sum);
+                    keys.addAll(Arrays.asList(product.keys));
+                }
+            }
+            trie.rerank(keys);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Apply creates/renames/deletes from the change feed, including those made on other instances
+     */
+    @EventListener
+    public synchronized void onProductChanges(ProductChangesEvent event) {
+        for (ProductChange change : event.getChanges()) {
+            if (change.getChangeType() == ProductChangeType.DELETED) {
+                productDeleted(change.getProductId());
+            } else {
+                productSaved(change.getProductId(), change.getName());
+            }
+        }
+    }
+
+    /**
+     * Size of the index, with the trie's approximate heap use per million products and keys
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", ready);
+        if (!ready) {
+            return stats;
+        }
+        lock.readLock().lock();
+        try {
+            long bytes = trie.estimateBytes();
+            int productCount = products.size();
+            stats.put("products", productCount);
+            stats.put("keys", trie.keyCount());
+            stats.put("nodes", trie.nodeCount());
+            stats.put("topK", topK);
+            stats.put("estimatedBytes", bytes);
+            stats.put("bytesPerMillionProducts", productCount == 0 ? 0 : bytes * 1_000_000 / productCount);
+            stats.put("bytesPerMillionKeys", trie.keyCount() == 0 ? 0 : bytes * 1_000_000 / trie.keyCount());
+        } finally {
+            lock.readLock().unlock();
+        }
+        return stats;
+    }
+
+    /**
+     * "Café-Table  (Oak)" -> "cafe table oak"
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+        return stripped.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    private static class IndexedProduct {
+        private final String name;
+        private final String[] keys;
+
+        IndexedProduct(String name) {
+            this.name = name;
+            this.keys = keysFor(name);
+        }
+
+        private static String[] keysFor(String name) {
+            String normalized = normalize(name);
+            if (normalized.isEmpty()) {
+                return new String[0];
+            }
+            String[] words = normalized.split(" ");
+            Set<String> keys = new LinkedHashSet<>();
+            for (int i = 0; i < Math.min(words.length, MAX_WORD_KEYS); i++) {
+                String key = String.join(" ", Arrays.asList(words).subList(i, words.length));
+                keys.add(key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH).trim() : key);
+            }
+            return keys.toArray(new String[0]);
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package com.ecommerce.product_catalog_service.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Radix trie from normalized keys to product IDs, for autocomplete.
+ *
+ * - Edges carry whole label runs (char[]), so a chain of single-child nodes costs one node
+ * - Children are a sorted char[] plus a parallel Node[] - no HashMap entries per edge
+ * - Every node keeps the top-K product IDs of its subtree by popularity, so a lookup is
+ *   a walk down the prefix and a copy of that list, independent of how many products match
+ *
+ * Not thread-safe: ProductSuggestService serializes writers and takes a read lock for lookups.
+ */
+final class SuggestTrie {
+
+    private static final char[] NO_CHARS = new char[0];
+    private static final long[] NO_IDS = new long[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    // Rough HotSpot sizes with compressed oops: 12-byte header, 4-byte references, 16-byte array headers
+    private static final int NODE_BYTES = 32;
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private final int topK;
+    private final LongUnaryOperator popularity;
+    private final Node root = new Node(NO_CHARS);
+    private int nodeCount = 1;
+    private long keyCount;
+
+    SuggestTrie(int topK, LongUnaryOperator popularity) {
+        this.topK = topK;
+        this.popularity = popularity;
+    }
+
+    /**
+     * Add a key for a product and refresh the top-K lists along its path
+     */
+    void add(String key, long productId) {
+        List<Node> path = insert(key, productId);
+        if (path != null) {
+            refresh(path);
+        }
+    }
+
+    /**
+     * Add a key without maintaining top-K lists - for bulk loads, call refreshAll() afterwards
+     */
+    void addUnranked(String key, long productId) {
+        insert(key, productId);
+    }
+
+    void remove(String key, long productId) {
+        List<Node> path = findPath(key);
+        if (path == null) {
+            return;
+        }
+        Node node = path.get(path.size() - 1);
+        int index = indexOf(node.products, productId);
+        if (index < 0) {
+            return;
+        }
+        node.products = removeAt(node.products, index);
+        keyCount--;
+
+        // Drop nodes that no longer lead anywhere, then re-compress a pass-through node
+        while (path.size() > 1) {
+            Node last = path.get(path.size() - 1);
+            if (last.products.length > 0 || last.children.length > 0) {
+                break;
+            }
+            path.remove(path.size() - 1);
+            path.get(path.size() - 1).removeChild(last.label[0]);
+            nodeCount--;
+        }
+        Node last = path.get(path.size() - 1);
+        if (last != root && last.products.length == 0 && last.children.length == 1) {
+            last.absorbOnlyChild();
+            nodeCount--;
+        }
+        refresh(path);
+    }
+
+    /**
+     * Re-rank after popularity changed for products under these keys.
+     * Shared nodes (e.g. the root) are recomputed once, deepest first.
+     */
+    void rerank(Collection<String> keys) {
+        Map<Node, Integer> depths = new IdentityHashMap<>();
+        for (String key : keys) {
+            List<Node> path = findPath(key);
+            if (path != null) {
+                for (int depth = 0; depth < path.size(); depth++) {
+                    depths.put(path.get(depth), depth);
+                }
+            }
+        }
+        depths.entrySet().stream()
+                .sorted((a, b) -> Integer.compare(b.getValue(), a.getValue()))
+                .forEach(entry -> recomputeTop(entry.getKey()));
+    }
+
+    /**
+     * Recompute every top-K list bottom-up
+     */
+    void refreshAll() {
+        refreshSubtree(root);
+    }
+
+    /**
+     * @return Up to limit product IDs whose key starts with prefix, most popular first
+     */
+    long[] lookup(String prefix, int limit) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            int slot = node.childSlot(prefix.charAt(i));
+            if (slot < 0) {
+                return NO_IDS;
+            }
+            Node child = node.children[slot];
+            int common = commonPrefix(child.label, prefix, i);
+            if (i + common == prefix.length()) {
+                // Prefix ends at or inside this edge - everything below the edge matches
+                return Arrays.copyOf(child.top, Math.min(limit, child.top.length));
+            }
+            if (common < child.label.length) {
+                return NO_IDS;
+            }
+            node = child;
+            i += common;
+        }
+        return Arrays.copyOf(node.top, Math.min(limit, node.top.length));
+    }
+
+    int nodeCount() {
+        return nodeCount;
+    }
+
+    long keyCount() {
+        return keyCount;
+    }
+
+    /**
+     * Approximate retained heap of the trie (nodes, labels, child arrays, ID lists)
+     */
+    long estimateBytes() {
+        long bytes = 0;
+        List<Node> stack = new ArrayList<>();
+        stack.add(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.remove(stack.size() - 1);
+            bytes += NODE_BYTES;
+            bytes += arrayBytes(node.label, 2);
+            bytes += node.childChars.length == 0 ? 0 : align(ARRAY_HEADER_BYTES + 2L * node.childChars.length);
+            bytes += node.children.length == 0 ? 0 : align(ARRAY_HEADER_BYTES + 4L * node.children.length);
+            bytes += node.products.length == 0 ? 0 : align(ARRAY_HEADER_BYTES + 8L * node.products.length);
+            bytes += node.top.length == 0 ? 0 : align(ARRAY_HEADER_BYTES + 8L * node.top.length);
+            stack.addAll(Arrays.asList(node.children));
+        }
+        return bytes;
+    }
+
+    private List<Node> insert(String key, long productId) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            int slot = node.childSlot(key.charAt(i));
+            if (slot < 0) {
+                Node leaf = new Node(key.substring(i).toCharArray());
+                node.insertChild(-slot - 1, leaf);
+                nodeCount++;
+                node = leaf;
+                path.add(node);
+                break;
+            }
+            Node child = node.children[slot];
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length) {
+                // Split the edge: node -> middle (shared part) -> child (rest of the old label)
+                Node middle = new Node(Arrays.copyOf(child.label, common));
+                child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+                middle.childChars = new char[]{child.label[0]};
+                middle.children = new Node[]{child};
+                middle.top = child.top;
+                node.children[slot] = middle;
+                nodeCount++;
+                child = middle;
+            }
+            node = child;
+            path.add(node);
+            i += common;
+        }
+        if (indexOf(node.products, productId) >= 0) {
+            return null;
+        }
+        node.products = Arrays.copyOf(node.products, node.products.length + 1);
+        node.products[node.products.length - 1] = productId;
+        keyCount++;
+        return path;
+    }
+
+    /**
+     * @return Nodes from the root to the node where key ends exactly, or null if the key is absent
+     */
+    private List<Node> findPath(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            int slot = node.childSlot(key.charAt(i));
+            if (slot < 0) {
+                return null;
+            }
+            Node child = node.children[slot];
+            if (commonPrefix(child.label, key, i) < child.label.length) {
+                return null;
+            }
+            node = child;
+            path.add(node);
+            i += child.label.length;
+        }
+        return path;
+    }
+
+    private void refresh(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            recomputeTop(path.get(i));
+        }
+    }
+
+    private void refreshSubtree(Node node) {
+        for (Node child : node.children) {
+            refreshSubtree(child);
+        }
+        recomputeTop(node);
+    }
+
+    /**
+     * A node's top-K comes from its own products and its children's top-K lists
+     */
+    private void recomputeTop(Node node) {
+        long[] best = new long[topK];
+        long[] bestScores = new long[topK];
+        int size = 0;
+        for (long productId : node.products) {
+            size = offer(best, bestScores, size, productId);
+        }
+        for (Node child : node.children) {
+            for (long productId : child.top) {
+                size = offer(best, bestScores, size, productId);
+            }
+        }
+        node.top = size == 0 ? NO_IDS : Arrays.copyOf(best, size);
+    }
+
+    private int offer(long[] best, long[] bestScores, int size, long productId) {
+        for (int i = 0; i < size; i++) {
+            if (best[i] == productId) {
+                // Same product under two keys of this subtree
+                return size;
+            }
+        }
+        long score = popularity.applyAsLong(productId);
+        int position = 0;
+        while (position < size && (bestScores[position] > score
+                || (bestScores[position] == score && best[position] < productId))) {
+            position++;
+        }
+        if (position >= topK) {
+            return size;
+        }
+        int end = Math.min(size, topK - 1);
+        System.arraycopy(best, position, best, position + 1, end - position);
+        System.arraycopy(bestScores, position, bestScores, position + 1, end - position);
+        best[position] = productId;
+        bestScores[position] = score;
+        return Math.min(size + 1, topK);
+    }
+
+    private static int commonPrefix(char[] label, String key, int from) {
+        int n = 0;
+        while (n < label.length && from + n < key.length() && label[n] == key.charAt(from + n)) {
+            n++;
+        }
+        return n;
+    }
+
+    private static int indexOf(long[] ids, long id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long[] removeAt(long[] ids, int index) {
+        if (ids.length == 1) {
+            return NO_IDS;
+        }
+        long[] result = new long[ids.length - 1];
+        System.arraycopy(ids, 0, result, 0, index);
+        System.arraycopy(ids, index + 1, result, index, ids.length - index - 1);
+        return result;
+    }
+
+    private static long arrayBytes(char[] chars, int elementBytes) {
+        return chars.length == 0 ? 0 : align(ARRAY_HEADER_BYTES + (long) elementBytes * chars.length);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    private static final class Node {
+        private char[] label;
+        private char[] childChars = NO_CHARS;
+        private Node[] children = NO_CHILDREN;
+        private long[] products = NO_IDS;
+        private long[] top = NO_IDS;
+
+        Node(char[] label) {
+            this.label = label;
+        }
+
+        int childSlot(char c) {
+            return Arrays.binarySearch(childChars, c);
+        }
+
+        void insertChild(int slot, Node child) {
+            char[] chars = new char[childChars.length + 1];
+            Node[] nodes = new Node[children.length + 1];
+            System.arraycopy(childChars, 0, chars, 0, slot);
+            System.arraycopy(children, 0, nodes, 0, slot);
+            chars[slot] = child.label[0];
+            nodes[slot] = child;
+            System.arraycopy(childChars, slot, chars, slot + 1, childChars.length - slot);
+            System.arraycopy(children, slot, nodes, slot + 1, children.length - slot);
+            childChars = chars;
+            children = nodes;
+        }
+
+        void removeChild(char c) {
+            int slot = childSlot(c);
+            if (slot < 0) {
+                return;
+            }
+            if (children.length == 1) {
+                childChars = NO_CHARS;
+                children = NO_CHILDREN;
+                return;
+            }
+            char[] chars = new char[childChars.length - 1];
+            Node[] nodes = new Node[children.length - 1];
+            System.arraycopy(childChars, 0, chars, 0, slot);
+            System.arraycopy(children, 0, nodes, 0, slot);
+            System.arraycopy(childChars, slot + 1, chars, slot, childChars.length - slot - 1);
+            System.arraycopy(children, slot + 1, nodes, slot, children.length - slot - 1);
+            childChars = chars;
+            children = nodes;
+        }
+
+        /**
+         * Merge the single child into this node, keeping the trie compressed
+         */
+        void absorbOnlyChild() {
+            Node child = children[0];
+            char[] merged = Arrays.copyOf(label, label.length + child.label.length);
+            System.arraycopy(child.label, 0, merged, label.length, child.label.length);
+            label = merged;
+            childChars = child.childChars;
+            children = child.children;
+            products = child.products;
+            top = child.top;
+        }
+    }
+}
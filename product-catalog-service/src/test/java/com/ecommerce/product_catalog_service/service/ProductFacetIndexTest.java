@@ -0,0 +1,119 @@
+package com.ecommerce.product_catalog_service.service;
+
+import com.ecommerce.product_catalog_service.dto.FacetedProductPage;
+import com.ecommerce.product_catalog_service.model.Category;
+import com.ecommerce.product_catalog_service.model.ProductAttribute;
+import com.ecommerce.product_catalog_service.repository.CategoryRepository;
+import com.ecommerce.product_catalog_service.repository.ProductAttributeRepository;
+import com.ecommerce.product_catalog_service.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductFacetIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductAttributeRepository productAttributeRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @InjectMocks
+    private ProductFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        // Category 11 is a subcategory of 10
+        when(categoryRepository.findAll()).thenReturn(List.of(category(10L, null), category(11L, 10L)));
+        when(productRepository.findFacetValuesAfter(anyLong(), any())).thenReturn(List.of(
+                row(1L, 10L, "Acme", "10.00"),
+                row(2L, 11L, "Acme", "20.00"),
+                row(3L, 10L, "Globex", "30.00")));
+        when(productAttributeRepository.findByProductIdIn(anyCollection())).thenReturn(List.of(
+                ProductAttribute.of(1L, "color", "Red"),
+                ProductAttribute.of(3L, "color", "blue")));
+        index.build();
+    }
+
+    @Test
+    void countsIgnoreTheFacetsOwnSelectionButApplyTheOthers() {
+        FacetedProductPage page = index.filter(Map.of("brand", Set.of("ACME ")), Map.of(), null, null, 0, 10);
+
+        assertEquals(2, page.getTotal());
+        assertEquals(List.of(1L, 2L), page.getProductIds());
+        // Other brands stay selectable
+        assertEquals(Map.of("acme", 2, "globex", 1), page.getFacets().get("brand"));
+        // The parent category counts its subcategory's products too
+        assertEquals(Map.of("10", 2, "11", 1), page.getFacets().get("category"));
+        assertEquals(Map.of("red", 1), page.getFacets().get("attr:color"));
+    }
+
+    @Test
+    void countsAreOrderedByCountThenValue() {
+        FacetedProductPage page = index.filter(Map.of(), Map.of(), null, null, 0, 10);
+
+        assertEquals(List.of("10", "11"), List.copyOf(page.getFacets().get("category").keySet()));
+        assertEquals(List.of("acme", "globex"), List.copyOf(page.getFacets().get("brand").keySet()));
+        assertEquals(List.of("blue", "red"), List.copyOf(page.getFacets().get("attr:color").keySet()));
+    }
+
+    @Test
+    void deletedProductsFreeTheirOrdinalForTheNextProduct() {
+        index.productDeleted(2L);
+        assertEquals(2, index.stats().get("products"));
+        assertEquals(3, index.stats().get("ordinals"));
+
+        when(productRepository.findFacetValuesByIdIn(anyCollection()))
+                .thenReturn(List.<Object[]>of(row(4L, 11L, "Initech", "40.00")));
+        index.reindex(List.of(4L));
+
+        // Product 4 took product 2's ordinal instead of growing the bitmaps
+        assertEquals(3, index.stats().get("products"));
+        assertEquals(3, index.stats().get("ordinals"));
+
+        FacetedProductPage page = index.filter(Map.of("category", Set.of("11")), Map.of(), null, null, 0, 10);
+        assertEquals(List.of(4L), page.getProductIds());
+        assertEquals(Map.of("10", 3, "11", 1), page.getFacets().get("category"));
+        assertEquals(Map.of("initech", 1), page.getFacets().get("brand"));
+    }
+
+    @Test
+    void valuesLeftWithoutProductsDisappearFromTheFacets() {
+        index.productDeleted(3L);
+
+        FacetedProductPage page = index.filter(Map.of(), Map.of(), null, null, 0, 10);
+        assertEquals(List.of(1L, 2L), page.getProductIds());
+        assertFalse(page.getFacets().get("brand").containsKey("globex"));
+        assertEquals(Map.of("red", 1), page.getFacets().get("attr:color"));
+    }
+
+    private static Object[] row(Long productId, Long categoryId, String brand, String price) {
+        return new Object[]{productId, categoryId, brand, new BigDecimal(price)};
+    }
+
+    private static Category category(Long id, Long parentId) {
+        Category category = new Category();
+        category.setId(id);
+        category.setParentId(parentId);
+        return category;
+    }
+}
@@ -0,0 +1,164 @@
+package com.ecommerce.product_catalog_service.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SuggestTrieTest {
+
+    private final Map<Long, Long> popularity = new HashMap<>();
+    private SuggestTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new SuggestTrie(3, productId -> popularity.getOrDefault(productId, 0L));
+    }
+
+    @Test
+    void insertSplitsAnEdgeAtTheSharedPrefix() {
+        trie.add("apple", 1);
+        assertEquals(2, trie.nodeCount());
+
+        // "apple" becomes "appl" -> "e", with "y" as a second child
+        trie.add("apply", 2);
+        assertEquals(4, trie.nodeCount());
+        assertEquals(2, trie.keyCount());
+
+        assertArrayEquals(new long[]{1, 2}, trie.lookup("appl", 10));
+        assertArrayEquals(new long[]{1}, trie.lookup("apple", 10));
+        assertArrayEquals(new long[]{2}, trie.lookup("apply", 10));
+    }
+
+    @Test
+    void addingTheSameKeyAndProductTwiceIsIgnored() {
+        trie.add("apple", 1);
+        trie.add("apple", 1);
+
+        assertEquals(1, trie.keyCount());
+        assertArrayEquals(new long[]{1}, trie.lookup("a", 10));
+    }
+
+    @Test
+    void lookupEndingInsideAnEdgeMatchesEverythingBelowIt() {
+        trie.add("banana", 3);
+        trie.add("bandana", 4);
+
+        // "ban" ends on the split node, "bana" and "band" inside the edges below it
+        assertArrayEquals(new long[]{3, 4}, trie.lookup("ban", 10));
+        assertArrayEquals(new long[]{3}, trie.lookup("bana", 10));
+        assertArrayEquals(new long[]{4}, trie.lookup("band", 10));
+        assertArrayEquals(new long[]{3, 4}, trie.lookup("", 10));
+    }
+
+    @Test
+    void lookupDivergingFromAnEdgeOrRunningPastAKeyFindsNothing() {
+        trie.add("banana", 3);
+
+        assertArrayEquals(new long[0], trie.lookup("bad", 10));
+        assertArrayEquals(new long[0], trie.lookup("bananas", 10));
+        assertArrayEquals(new long[0], trie.lookup("c", 10));
+    }
+
+    @Test
+    void removeDropsEmptyNodesAndMergesThePassThroughNode() {
+        trie.add("apple", 1);
+        trie.add("apply", 2);
+
+        trie.remove("apply", 2);
+
+        // "y" is gone and "appl" absorbed its only child "e" again
+        assertEquals(2, trie.nodeCount());
+        assertEquals(1, trie.keyCount());
+        assertArrayEquals(new long[]{1}, trie.lookup("app", 10));
+        assertArrayEquals(new long[]{1}, trie.lookup("apple", 10));
+        assertArrayEquals(new long[0], trie.lookup("apply", 10));
+
+        // The merged edge still splits correctly
+        trie.add("apricot", 5);
+        assertArrayEquals(new long[]{1, 5}, trie.lookup("ap", 10));
+    }
+
+    @Test
+    void removeKeepsANodeThatStillHasProducts() {
+        trie.add("pen", 1);
+        trie.add("pencil", 2);
+
+        trie.remove("pencil", 2);
+
+        assertEquals(2, trie.nodeCount());
+        assertArrayEquals(new long[]{1}, trie.lookup("pe", 10));
+        assertArrayEquals(new long[0], trie.lookup("penc", 10));
+    }
+
+    @Test
+    void removingAnAbsentKeyOrProductChangesNothing() {
+        trie.add("apple", 1);
+
+        trie.remove("app", 1);
+        trie.remove("apple", 2);
+        trie.remove("pear", 1);
+
+        assertEquals(2, trie.nodeCount());
+        assertEquals(1, trie.keyCount());
+        assertArrayEquals(new long[]{1}, trie.lookup("apple", 10));
+    }
+
+    @Test
+    void lookupReturnsTheMostPopularFirstAndKeepsTopK() {
+        popularity.put(1L, 10L);
+        popularity.put(2L, 30L);
+        popularity.put(3L, 20L);
+        popularity.put(4L, 5L);
+        trie.add("cable", 1);
+        trie.add("camera", 2);
+        trie.add("candle", 3);
+        trie.add("cap", 4);
+
+        assertArrayEquals(new long[]{2, 3, 1}, trie.lookup("ca", 10));
+        assertArrayEquals(new long[]{2, 3}, trie.lookup("ca", 2));
+    }
+
+    @Test
+    void equalPopularityRanksTheLowerIdFirst() {
+        trie.add("cab", 9);
+        trie.add("cat", 7);
+
+        assertArrayEquals(new long[]{7, 9}, trie.lookup("ca", 10));
+    }
+
+    @Test
+    void rerankReordersEveryNodeOnTheChangedPaths() {
+        popularity.put(1L, 10L);
+        popularity.put(2L, 20L);
+        trie.add("cable", 1);
+        trie.add("camera", 2);
+        assertArrayEquals(new long[]{2, 1}, trie.lookup("ca", 10));
+
+        popularity.put(1L, 50L);
+        // Stale until the path is re-ranked
+        assertArrayEquals(new long[]{2, 1}, trie.lookup("ca", 10));
+
+        trie.rerank(List.of("cable"));
+        assertArrayEquals(new long[]{1, 2}, trie.lookup("ca", 10));
+        assertArrayEquals(new long[]{1, 2}, trie.lookup("", 10));
+    }
+
+    @Test
+    void unrankedLoadIsRankedByRefreshAll() {
+        popularity.put(1L, 1L);
+        popularity.put(2L, 2L);
+        trie.addUnranked("desk", 1);
+        trie.addUnranked("desk lamp", 2);
+        assertArrayEquals(new long[0], trie.lookup("desk", 10));
+
+        trie.refreshAll();
+        assertArrayEquals(new long[]{2, 1}, trie.lookup("desk", 10));
+        assertArrayEquals(new long[]{2}, trie.lookup("desk l", 10));
+    }
+}